@@ -0,0 +1,146 @@
+package bench;
+
+import model.DBConfig;
+import service.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Schema and synthetic data for the benchmarks, in an in-memory H2 database running in MySQL mode
+// so the services' SQL runs unchanged. Every benchmark class forks with URL_ARG, USER_ARG and
+// PASS_ARG, which point DBConfig at that database, so each trial seeds a fresh copy and the real
+// quiz database is never touched.
+final class BenchDatabase {
+    static final String URL = "jdbc:h2:mem:quizbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String URL_ARG = "-Dquiz.db.url=" + URL;
+    static final String USER_ARG = "-Dquiz.db.user=sa";
+    static final String PASS_ARG = "-Dquiz.db.pass=";
+
+    static final String USER_PASSWORD = "bench";
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final int BATCH_SIZE = 1_000;
+
+    private BenchDatabase() {
+    }
+
+    static String username(int index) {
+        return String.format("bench_user_%07d", index);
+    }
+
+    // Tables the benchmarked services read and write; the rest are created by the services themselves
+    static void createSchema() throws SQLException {
+        if (!DBConfig.URL.startsWith("jdbc:h2:")) {
+            throw new IllegalStateException("Benchmarks seed their own H2 database; run them forked, not against "
+                    + DBConfig.URL);
+        }
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS users ("
+                    + "username VARCHAR(50) NOT NULL PRIMARY KEY, "
+                    + "password VARCHAR(255) NOT NULL, "
+                    + "score INT NOT NULL DEFAULT 0)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS teachers ("
+                    + "username VARCHAR(50) NOT NULL PRIMARY KEY, "
+                    + "password VARCHAR(255) NOT NULL)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS courses ("
+                    + "course_id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "course_name VARCHAR(100) NOT NULL, "
+                    + "course_code VARCHAR(20) NOT NULL UNIQUE, "
+                    + "description TEXT)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS questions ("
+                    + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "course_id INT, "
+                    + "question_text TEXT NOT NULL, "
+                    + "option1 VARCHAR(255) NOT NULL, "
+                    + "option2 VARCHAR(255) NOT NULL, "
+                    + "option3 VARCHAR(255) NOT NULL, "
+                    + "option4 VARCHAR(255) NOT NULL, "
+                    + "correct_option INT NOT NULL, "
+                    + "difficulty_level VARCHAR(20) DEFAULT 'Medium')");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_questions_course ON questions (course_id)");
+        }
+    }
+
+    // Returns the ids of the new courses
+    static List<Integer> seedCourses(int courses) throws SQLException {
+        String sql = "INSERT INTO courses (course_name, course_code, description) VALUES (?, ?, ?)";
+        List<Integer> ids = new ArrayList<>(courses);
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < courses; i++) {
+                ps.setString(1, "Benchmark Course " + i);
+                ps.setString(2, String.format("BENCH-%03d", i));
+                ps.setString(3, "Synthetic course for benchmarks");
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    ids.add(keys.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Spreads questions round-robin over the given courses
+    static void seedQuestions(int questions, List<Integer> courseIds, Random random) throws SQLException {
+        String sql = "INSERT INTO questions (course_id, question_text, option1, option2, option3, option4, "
+                + "correct_option, difficulty_level) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        insertInBatches(sql, questions, (ps, i) -> {
+            ps.setInt(1, courseIds.get(i % courseIds.size()));
+            ps.setString(2, "Benchmark question " + i + ": which option is correct?");
+            for (int option = 1; option <= 4; option++) {
+                ps.setString(2 + option, "Option " + option + " for question " + i);
+            }
+            ps.setInt(7, random.nextInt(4));
+            ps.setString(8, DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+        });
+    }
+
+    static void seedUsers(int users, Random random) throws SQLException {
+        insertInBatches("INSERT INTO users (username, password, score) VALUES (?, ?, ?)", users, (ps, i) -> {
+            ps.setString(1, username(i));
+            ps.setString(2, USER_PASSWORD);
+            ps.setInt(3, random.nextInt(101));
+        });
+    }
+
+    // Drains queued score writes, then closes the pool's connections
+    static void close() {
+        ConnectionPool.getInstance().shutdown();
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int row) throws SQLException;
+    }
+
+    private static void insertInBatches(String sql, int rows, RowBinder binder) throws SQLException {
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < rows; i++) {
+                    binder.bind(ps, i);
+                    ps.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                        conn.commit();
+                    }
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
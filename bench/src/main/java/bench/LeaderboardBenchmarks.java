@@ -0,0 +1,54 @@
+package bench;
+
+import model.ScoreEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.LeaderboardService;
+import service.UserManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Overall leaderboard queries, served from the in-memory ranking
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {BenchDatabase.URL_ARG, BenchDatabase.USER_ARG, BenchDatabase.PASS_ARG})
+public class LeaderboardBenchmarks {
+    private final UserManager userManager = new UserManager();
+
+    @Benchmark
+    public List<ScoreEntry> top10(StudentState students) {
+        return userManager.getLeaderboardPage(0, null, 10);
+    }
+
+    // The 100 rows after a random student's position, as when scrolling deep into the table
+    @Benchmark
+    public List<ScoreEntry> pageAfter(StudentState students) {
+        List<ScoreEntry> anchor = LeaderboardService.getInstance().getPage(students.randomPosition(), 1);
+        if (anchor.isEmpty()) {
+            return anchor;
+        }
+        ScoreEntry entry = anchor.get(0);
+        return userManager.getLeaderboardPage(entry.getScore(), entry.getUsername(), 100);
+    }
+
+    @Benchmark
+    public int rank(StudentState students) {
+        return userManager.getRank(students.randomUser());
+    }
+
+    @Benchmark
+    public List<ScoreEntry> full(StudentState students) {
+        return userManager.getLeaderboard();
+    }
+}
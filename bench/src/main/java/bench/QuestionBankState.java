@@ -0,0 +1,41 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Courses and questions seeded once per trial; change the volumes with e.g. -p questions=10000
+@State(Scope.Benchmark)
+public class QuestionBankState {
+    @Param({"1000", "100000"})
+    public int questions;
+
+    @Param({"20"})
+    public int courses;
+
+    private List<Integer> courseIds;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        BenchDatabase.createSchema();
+        courseIds = BenchDatabase.seedCourses(courses);
+        BenchDatabase.seedQuestions(questions, courseIds, new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        BenchDatabase.close();
+    }
+
+    public int randomCourse() {
+        return courseIds.get(ThreadLocalRandom.current().nextInt(courseIds.size()));
+    }
+}
@@ -0,0 +1,49 @@
+package bench;
+
+import model.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.CourseBasedQuiz;
+import service.CourseManager;
+import service.QuestionBankCache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Question loading: a course's questions from MySQL (cold) and from the cache (warm), and the
+// sampled question set a course quiz starts with
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {BenchDatabase.URL_ARG, BenchDatabase.USER_ARG, BenchDatabase.PASS_ARG})
+public class QuestionBenchmarks {
+    private final CourseManager courseManager = new CourseManager();
+    private final CourseBasedQuiz courseBasedQuiz = new CourseBasedQuiz();
+
+    @Benchmark
+    public List<Question> questionsByCourseCold(QuestionBankState bank) {
+        int courseId = bank.randomCourse();
+        QuestionBankCache.getInstance().invalidateCourse(courseId);
+        return courseManager.getQuestionsByCourse(courseId);
+    }
+
+    @Benchmark
+    public List<Question> questionsByCourseWarm(QuestionBankState bank) {
+        return courseManager.getQuestionsByCourse(bank.randomCourse());
+    }
+
+    @Benchmark
+    public List<Question> loadQuestionsFromCourse(QuestionBankState bank) {
+        courseBasedQuiz.loadQuestionsFromCourse(bank.randomCourse());
+        return courseBasedQuiz.getQuestions();
+    }
+}
@@ -0,0 +1,41 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import service.LeaderboardService;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Students with random scores, seeded once per trial and loaded into the in-memory ranking;
+// change the volume with e.g. -p users=10000
+@State(Scope.Benchmark)
+public class StudentState {
+    @Param({"1000", "100000"})
+    public int users;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        BenchDatabase.createSchema();
+        BenchDatabase.seedUsers(users, new Random(42));
+        LeaderboardService.getInstance().reconcile();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        BenchDatabase.close();
+    }
+
+    public String randomUser() {
+        return BenchDatabase.username(ThreadLocalRandom.current().nextInt(users));
+    }
+
+    public int randomPosition() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+}
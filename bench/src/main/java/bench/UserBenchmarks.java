@@ -0,0 +1,42 @@
+package bench;
+
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.UserManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Student login and the score update at the end of a quiz (queued for the write-behind sink)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {BenchDatabase.URL_ARG, BenchDatabase.USER_ARG, BenchDatabase.PASS_ARG})
+public class UserBenchmarks {
+    private final UserManager userManager = new UserManager();
+
+    @Benchmark
+    public User login(StudentState students) {
+        User user = userManager.login(students.randomUser(), BenchDatabase.USER_PASSWORD);
+        if (user == null) {
+            throw new IllegalStateException("Seeded user could not log in");
+        }
+        return user;
+    }
+
+    @Benchmark
+    public void updateUserScore(StudentState students) {
+        User user = new User(students.randomUser(), BenchDatabase.USER_PASSWORD, 0);
+        userManager.updateUserScore(user, ThreadLocalRandom.current().nextInt(101));
+    }
+}
@@ -0,0 +1,284 @@
+package service;
+
+import model.Course;
+import model.CourseScore;
+import model.Question;
+import model.QuestionCounts;
+import model.QuestionHeader;
+import model.QuizConfig;
+import model.ScoreEntry;
+import model.Teacher;
+import model.User;
+import server.QuizServiceClient;
+import server.RemoteQuizSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Async facade over the data-access services for UI code.
+// Every call runs on a virtual thread and completes a CompletableFuture, so screens can render a
+// placeholder right away and fill in data when it arrives instead of blocking the FX thread on JDBC.
+// Concurrent database work is still bounded by the connection pool.
+// When a quiz server is configured (-Dquiz.server.url) the same calls go over HTTP instead of JDBC.
+// The prefetch* methods start loads for the likely next screen; its getter then picks them up (see Prefetcher).
+public class AsyncDataService {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final UserManager userManager;
+    private final CourseManager courseManager;
+    private final QuizServiceClient remote;
+    private final QuestionSampler questionSampler;
+    private final Prefetcher prefetcher = Prefetcher.getInstance();
+
+    public AsyncDataService(UserManager userManager) {
+        this.userManager = userManager;
+        this.courseManager = new CourseManager();
+        this.remote = QuizServiceClient.shared();
+        this.questionSampler = new QuestionSampler(courseManager);
+    }
+
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, EXECUTOR);
+    }
+
+    public CompletableFuture<List<Course>> getAllCourses() {
+        return prefetcher.take("courses", this::loadAllCourses);
+    }
+
+    public void prefetchCourses() {
+        prefetcher.prefetch("courses", QuestionBankCache.ALL_COURSES, this::loadAllCourses);
+    }
+
+    private CompletableFuture<List<Course>> loadAllCourses() {
+        return supply(() -> remote != null ? remote.getAllCourses() : courseManager.getAllCourses());
+    }
+
+    public CompletableFuture<List<Question>> getQuestionsByCourse(int courseId) {
+        return supply(() -> remote != null ? remote.getQuestionsByCourse(courseId) : courseManager.getQuestionsByCourse(courseId));
+    }
+
+    public CompletableFuture<Map<Integer, QuestionCounts>> getQuestionCountsByCourse() {
+        return supply(() -> remote != null ? remote.getQuestionCountsByCourse() : courseManager.getQuestionCountsByCourse());
+    }
+
+    public CompletableFuture<List<Question>> getAllQuestions() {
+        return supply(() -> remote != null ? remote.getAllQuestions() : courseManager.getAllQuestions());
+    }
+
+    // Next page of question headers by ascending id, for scrolling lists; courseId null for every
+    // course. Listing screens load the full question (getQuestion) only for a row that is opened.
+    public CompletableFuture<List<QuestionHeader>> getQuestionHeaderPage(Integer courseId, int afterQuestionId, int limit) {
+        return supply(() -> remote != null
+                ? remote.getQuestionHeaderPage(courseId, afterQuestionId, limit)
+                : courseManager.getQuestionHeaderPage(courseId, afterQuestionId, limit));
+    }
+
+    public CompletableFuture<Question> getQuestion(int questionId) {
+        return supply(() -> remote != null ? remote.getQuestion(questionId) : courseManager.getQuestionById(questionId));
+    }
+
+    public CompletableFuture<Boolean> addQuestion(String text, String option1, String option2, String option3,
+                                                  String option4, int correctOption) {
+        return supply(() -> remote != null
+                ? remote.addQuestion(null, text, new String[]{option1, option2, option3, option4}, correctOption, null)
+                : userManager.addQuestion(text, option1, option2, option3, option4, correctOption));
+    }
+
+    public CompletableFuture<Boolean> addQuestionToCourse(int courseId, String text, String option1, String option2,
+                                                          String option3, String option4, int correctOption,
+                                                          String difficulty) {
+        return supply(() -> remote != null
+                ? remote.addQuestion(courseId, text, new String[]{option1, option2, option3, option4}, correctOption, difficulty)
+                : courseManager.addQuestionToCourse(courseId, text, option1, option2, option3, option4, correctOption, difficulty));
+    }
+
+    public CompletableFuture<Boolean> deleteQuestion(int questionId) {
+        return supply(() -> remote != null ? remote.deleteQuestion(questionId) : userManager.deleteQuestion(questionId));
+    }
+
+    public CompletableFuture<QuizConfig> getQuizConfig(int courseId) {
+        return supply(() -> remote != null ? remote.getQuizConfig(courseId) : userManager.getQuizConfig(courseId));
+    }
+
+    // Keyset pages of the overall leaderboard: the rows after (afterScore, afterUsername), null for the top
+    public CompletableFuture<List<ScoreEntry>> getLeaderboardPage(int afterScore, String afterUsername, int limit) {
+        return supply(() -> remote != null
+                ? remote.getLeaderboardPage(afterScore, afterUsername, limit)
+                : userManager.getLeaderboardPage(afterScore, afterUsername, limit));
+    }
+
+    // Student usernames in order, after afterUsername (null for the first page)
+    public CompletableFuture<List<String>> getStudentsPage(String afterUsername, int limit) {
+        return supply(() -> remote != null
+                ? remote.getStudentsPage(afterUsername, limit)
+                : userManager.getStudentsPage(afterUsername, limit));
+    }
+
+    public CompletableFuture<Boolean> deleteStudent(String username) {
+        return supply(() -> remote != null ? remote.deleteStudent(username) : userManager.deleteStudent(username));
+    }
+
+    public CompletableFuture<List<CourseScore>> getCourseLeaderboard(int courseId, CourseLeaderboardService.Metric metric, int limit) {
+        return supply(() -> remote != null
+                ? remote.getCourseLeaderboard(courseId, metric, limit)
+                : CourseLeaderboardService.getInstance().getTop(courseId, metric, limit));
+    }
+
+    // Loads the course's in-memory ranking ahead of the leaderboard screen. Nothing is kept here: the
+    // ranking applies new attempts as they are written, so a copy taken now would miss the current one.
+    // A quiz server keeps its rankings loaded already.
+    public void prefetchCourseLeaderboard(int courseId, CourseLeaderboardService.Metric metric) {
+        if (remote == null) {
+            run(() -> CourseLeaderboardService.getInstance().getTop(courseId, metric, 1));
+        }
+    }
+
+    // A new attempt at the course, ready to show its first question. Against a quiz server the quiz
+    // is started there; otherwise it is a local QuizSession over a fresh random question sample.
+    public CompletableFuture<PreparedQuiz> prepareQuiz(int courseId) {
+        if (remote != null) {
+            return supply(() -> {
+                RemoteQuizSession quiz = RemoteQuizSession.start(remote, courseId);
+                return new PreparedQuiz(new QuizConfig(courseId, quiz.getQuestionCount(), quiz.getTimePerQuestionSeconds()), quiz);
+            });
+        }
+        return prefetcher.<QuizSample>take("quiz:" + courseId, () -> loadQuizSample(courseId))
+                .thenApply(sample -> new PreparedQuiz(sample.config,
+                        new QuizSession(sample.questions, sample.config.getTimePerQuestion())));
+    }
+
+    // Each sample is used once, so a retake still gets new questions. A server-held quiz starts its
+    // clock when it is created, so nothing is prefetched in that case.
+    public void prefetchQuiz(int courseId) {
+        if (remote == null) {
+            prefetcher.prefetch("quiz:" + courseId, courseId, () -> loadQuizSample(courseId));
+        }
+    }
+
+    private CompletableFuture<QuizSample> loadQuizSample(int courseId) {
+        return supply(() -> {
+            QuizConfig config = userManager.getQuizConfig(courseId);
+            return new QuizSample(config, questionSampler.sample(courseId, config.getQuestionLimit()));
+        });
+    }
+
+    // Quiz actions; a server-held quiz makes a round trip for each
+    public CompletableFuture<QuizSession.Outcome> submitAnswer(QuizFlow quiz, int answer) {
+        return supply(() -> quiz.submit(answer));
+    }
+
+    public CompletableFuture<QuizSession.Outcome> skipQuestion(QuizFlow quiz) {
+        return supply(quiz::skip);
+    }
+
+    public CompletableFuture<QuizSession.Outcome> expireQuestion(QuizFlow quiz) {
+        return supply(quiz::expire);
+    }
+
+    // Records the finished quiz: the score update and the attempt log entry. A quiz server
+    // records both itself when told the quiz is finished.
+    public CompletableFuture<Void> finishQuiz(User user, int courseId, QuizConfig config, QuizFlow quiz) {
+        return run(() -> {
+            if (quiz instanceof RemoteQuizSession remoteQuiz) {
+                remoteQuiz.finish();
+            } else {
+                QuizSession session = (QuizSession) quiz;
+                userManager.updateUserScore(user, session.getScore());
+                AttemptLog.getInstance().record(user.getUsername(), courseId, config, session);
+            }
+        });
+    }
+
+    // Bulk import from a CSV/JSON file; progress is reported on the importing thread after every batch.
+    // A quiz server imports the uploaded file itself and reports only the result.
+    public CompletableFuture<QuestionImporter.ImportResult> importQuestions(Path file, Integer defaultCourseId,
+                                                                          QuestionImporter.ProgressListener listener) {
+        return supply(() -> {
+            try {
+                if (remote != null) {
+                    return remote.importQuestions(file, defaultCourseId);
+                }
+                return new QuestionImporter().importFile(file, defaultCourseId, listener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Streams questions of one course (or all when courseId is null) to a file
+    public CompletableFuture<QuestionExporter.ExportResult> exportQuestions(Path file, QuestionExporter.Format format,
+                                                                          Integer courseId) {
+        return supply(() -> {
+            try {
+                if (remote != null) {
+                    return remote.exportQuestions(file, format, courseId);
+                }
+                return new QuestionExporter().exportFile(file, format, courseId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public CompletableFuture<User> login(String username, String password) {
+        return supply(() -> remote != null ? remote.login(username, password) : userManager.login(username, password));
+    }
+
+    public CompletableFuture<Teacher> teacherLogin(String username, String password) {
+        return supply(() -> remote != null ? remote.teacherLogin(username, password) : userManager.teacherLogin(username, password));
+    }
+
+    public CompletableFuture<Boolean> register(String username, String password) {
+        return supply(() -> remote != null ? remote.register(username, password) : userManager.register(username, password));
+    }
+
+    public CompletableFuture<Boolean> registerTeacher(String username, String password) {
+        return supply(() -> remote != null
+                ? remote.registerTeacher(username, password)
+                : userManager.registerTeacher(username, password));
+    }
+
+    public static class PreparedQuiz {
+        private final QuizConfig config;
+        private final QuizFlow quiz;
+
+        public PreparedQuiz(QuizConfig config, QuizFlow quiz) {
+            this.config = config;
+            this.quiz = quiz;
+        }
+
+        public QuizConfig getConfig() {
+            return config;
+        }
+
+        public QuizFlow getQuiz() {
+            return quiz;
+        }
+    }
+
+    // Config and questions (already in quiz order) for a local quiz
+    private static class QuizSample {
+        private final QuizConfig config;
+        private final List<Question> questions;
+
+        QuizSample(QuizConfig config, List<Question> questions) {
+            this.config = config;
+            this.questions = questions;
+        }
+    }
+}
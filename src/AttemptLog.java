@@ -0,0 +1,287 @@
+package service;
+
+import model.DBConfig;
+import model.Question;
+import model.QuestionStats;
+import model.QuizAttempt;
+import model.QuizConfig;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Append-only log of completed quiz attempts (quiz_attempts + quiz_attempt_answers).
+// record() only puts the attempt on a bounded in-memory queue; a daemon writer inserts queued
+// attempts in JDBC batches, so finishing a quiz never waits on MySQL. Attempt ids are generated
+// here so attempt and answer rows go out in the same batch. The queue is drained before the
+// connection pool shuts down. The same transaction upserts the per-course summaries behind
+// CourseLeaderboardService; attempt history and question analytics (served by QuizServer) are
+// read from the log directly.
+public class AttemptLog {
+    private static volatile AttemptLog instance;
+
+    private final CourseLeaderboardService courseLeaderboards = CourseLeaderboardService.getInstance();
+    private final BlockingQueue<QuizAttempt> queue = new LinkedBlockingQueue<>(DBConfig.ATTEMPT_QUEUE_CAPACITY);
+    private final Object writeLock = new Object();
+    private final Thread writer;
+    private List<QuizAttempt> unwritten = List.of(); // the writer's last batch; read by close() after join
+    private volatile boolean closed;
+    private volatile boolean schemaReady;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private AttemptLog() {
+        writer = new Thread(this::writeLoop, "attempt-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static AttemptLog getInstance() {
+        AttemptLog log = instance;
+        if (log == null) {
+            synchronized (AttemptLog.class) {
+                log = instance;
+                if (log == null) {
+                    log = new AttemptLog();
+                    ConnectionPool.getInstance().runBeforeShutdown(log::close);
+                    log.registerGauges(MetricsRegistry.getInstance());
+                    instance = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    private void registerGauges(MetricsRegistry registry) {
+        registry.registerGauge("attempt_log_recorded", recorded::get);
+        registry.registerGauge("attempt_log_written", written::get);
+        registry.registerGauge("attempt_log_dropped", dropped::get);
+        registry.registerGauge("attempt_log_queued", queue::size);
+    }
+
+    // Queues a finished session for writing; never blocks
+    public QuizAttempt record(String username, int courseId, QuizConfig config, QuizSession session) {
+        List<QuizAttempt.Answer> answers = new ArrayList<>(session.getQuestionCount());
+        List<Question> questions = session.getQuestions();
+        for (int i = 0; i < session.getCurrentIndex(); i++) {
+            answers.add(new QuizAttempt.Answer(questions.get(i).getQuestionId(), session.getAnswer(i),
+                    session.getOutcome(i).name(), session.getLatencyMillis(i)));
+        }
+        QuizAttempt attempt = new QuizAttempt(UUID.randomUUID().toString(), username, courseId,
+                config.getQuestionLimit(), config.getTimePerQuestion(), session.getScore(),
+                session.getQuestionCount(), session.getStartedAtMillis(), System.currentTimeMillis(), answers);
+
+        recorded.incrementAndGet();
+        if (closed) {
+            writeNow(List.of(attempt));
+        } else if (!queue.offer(attempt)) {
+            dropped.incrementAndGet();
+            System.out.println("❌ Attempt log queue is full, attempt by " + username + " was not recorded");
+        }
+        return attempt;
+    }
+
+    private void writeLoop() {
+        List<QuizAttempt> batch = new ArrayList<>(DBConfig.ATTEMPT_BATCH_SIZE);
+        while (!closed) {
+            try {
+                if (batch.isEmpty()) {
+                    QuizAttempt first = queue.poll(DBConfig.ATTEMPT_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, DBConfig.ATTEMPT_BATCH_SIZE - batch.size());
+                if (writeNow(batch)) {
+                    batch.clear();
+                } else {
+                    // Keep the batch and retry after a pause
+                    Thread.sleep(DBConfig.ATTEMPT_FLUSH_INTERVAL_MS);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        // Hand the batch in flight (e.g. one waiting for a retry) to close(), which writes it first
+        unwritten = batch;
+    }
+
+    private boolean writeNow(List<QuizAttempt> batch) {
+        synchronized (writeLock) {
+            try {
+                insert(batch);
+                written.addAndGet(batch.size());
+                return true;
+            } catch (SQLException e) {
+                System.out.println("❌ Attempt log write error: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private void insert(List<QuizAttempt> batch) throws SQLException {
+        String attemptSql = "INSERT INTO quiz_attempts (attempt_id, username, course_id, question_limit, "
+                + "time_per_question, question_count, score, started_at, finished_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String answerSql = "INSERT INTO quiz_attempt_answers (attempt_id, question_index, question_id, answer, "
+                + "outcome, latency_ms) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            ensureSchema(conn);
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement attempts = conn.prepareStatement(attemptSql);
+                 PreparedStatement answers = conn.prepareStatement(answerSql)) {
+                for (QuizAttempt attempt : batch) {
+                    attempts.setString(1, attempt.getAttemptId());
+                    attempts.setString(2, attempt.getUsername());
+                    attempts.setInt(3, attempt.getCourseId());
+                    attempts.setInt(4, attempt.getQuestionLimit());
+                    attempts.setInt(5, attempt.getTimePerQuestion());
+                    attempts.setInt(6, attempt.getQuestionCount());
+                    attempts.setInt(7, attempt.getScore());
+                    attempts.setTimestamp(8, new Timestamp(attempt.getStartedAt()));
+                    attempts.setTimestamp(9, new Timestamp(attempt.getFinishedAt()));
+                    attempts.addBatch();
+
+                    List<QuizAttempt.Answer> rows = attempt.getAnswers();
+                    for (int i = 0; i < rows.size(); i++) {
+                        QuizAttempt.Answer answer = rows.get(i);
+                        answers.setString(1, attempt.getAttemptId());
+                        answers.setInt(2, i);
+                        answers.setInt(3, answer.getQuestionId());
+                        answers.setInt(4, answer.getAnswer());
+                        answers.setString(5, answer.getOutcome());
+                        answers.setLong(6, answer.getLatencyMillis());
+                        answers.addBatch();
+                    }
+                }
+                attempts.executeBatch();
+                answers.executeBatch();
+                courseLeaderboards.writeSummaries(conn, batch);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+            try {
+                courseLeaderboards.applyCommitted(conn, batch);
+            } catch (SQLException e) {
+                // The summary rows are committed; the heaps just reload on next read
+                courseLeaderboards.invalidateAll();
+            }
+        }
+    }
+
+    void ensureSchema(Connection conn) throws SQLException {
+        if (schemaReady) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS quiz_attempts ("
+                    + "attempt_id CHAR(36) NOT NULL PRIMARY KEY, "
+                    + "username VARCHAR(50) NOT NULL, "
+                    + "course_id INT NOT NULL, "
+                    + "question_limit INT NOT NULL, "
+                    + "time_per_question INT NOT NULL, "
+                    + "question_count INT NOT NULL, "
+                    + "score INT NOT NULL, "
+                    + "started_at TIMESTAMP(3) NOT NULL, "
+                    + "finished_at TIMESTAMP(3) NOT NULL, "
+                    + "INDEX idx_attempts_course (course_id, score), "
+                    + "INDEX idx_attempts_user (username, finished_at))");
+            stmt.execute("CREATE TABLE IF NOT EXISTS quiz_attempt_answers ("
+                    + "attempt_id CHAR(36) NOT NULL, "
+                    + "question_index INT NOT NULL, "
+                    + "question_id INT NOT NULL, "
+                    + "answer TINYINT NOT NULL, "
+                    + "outcome VARCHAR(10) NOT NULL, "
+                    + "latency_ms INT NOT NULL, "
+                    + "PRIMARY KEY (attempt_id, question_index), "
+                    + "INDEX idx_answers_question (question_id))");
+        }
+        CourseLeaderboardService.getInstance().ensureSchema(conn);
+        schemaReady = true;
+    }
+
+    // Writes out everything still queued; called before the connection pool closes. Waits for the
+    // writer to finish its current write or retry pause, so its batch is not lost.
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<QuizAttempt> rest = new ArrayList<>(unwritten);
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += DBConfig.ATTEMPT_BATCH_SIZE) {
+            if (!writeNow(rest.subList(from, Math.min(rest.size(), from + DBConfig.ATTEMPT_BATCH_SIZE)))) {
+                System.out.println("❌ " + (rest.size() - from) + " quiz attempt(s) could not be saved on shutdown");
+                return;
+            }
+        }
+    }
+
+    // Analytics over the log
+
+    // Most recent attempts of a student, newest first, without per-question rows
+    public List<QuizAttempt> getAttemptHistory(String username, int limit) {
+        String sql = "SELECT attempt_id, course_id, question_limit, time_per_question, question_count, score, "
+                + "started_at, finished_at FROM quiz_attempts WHERE username = ? ORDER BY finished_at DESC LIMIT ?";
+        List<QuizAttempt> history = new ArrayList<>();
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            ensureSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, username);
+                ps.setInt(2, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        history.add(new QuizAttempt(rs.getString("attempt_id"), username, rs.getInt("course_id"),
+                                rs.getInt("question_limit"), rs.getInt("time_per_question"), rs.getInt("score"),
+                                rs.getInt("question_count"), rs.getTimestamp("started_at").getTime(),
+                                rs.getTimestamp("finished_at").getTime(), List.of()));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error loading attempt history: " + e.getMessage());
+        }
+        return history;
+    }
+
+    // Answer statistics for every question of a course that has been asked at least once
+    public List<QuestionStats> getQuestionStats(int courseId) {
+        String sql = "SELECT a.question_id, COUNT(*) AS asked, "
+                + "SUM(a.outcome = 'CORRECT') AS correct, "
+                + "SUM(a.outcome IN ('SKIPPED', 'TIMED_OUT')) AS unanswered, "
+                + "AVG(a.latency_ms) AS avg_latency "
+                + "FROM quiz_attempt_answers a JOIN quiz_attempts t ON t.attempt_id = a.attempt_id "
+                + "WHERE t.course_id = ? GROUP BY a.question_id ORDER BY a.question_id";
+        List<QuestionStats> stats = new ArrayList<>();
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            ensureSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, courseId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        stats.add(new QuestionStats(rs.getInt("question_id"), rs.getInt("asked"),
+                                rs.getInt("correct"), rs.getInt("unanswered"), rs.getDouble("avg_latency")));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error loading question statistics: " + e.getMessage());
+        }
+        return stats;
+    }
+}
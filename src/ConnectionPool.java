@@ -0,0 +1,732 @@
+package service;
+
+import jdk.jfr.EventType;
+import model.DBConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared, bounded JDBC connection pool configured from DBConfig.
+// Every data-access path borrows from here instead of calling DriverManager directly;
+// closing the borrowed connection hands it back to the pool.
+// Each physical connection also keeps an LRU cache of the statements prepared on it through
+// prepareStatement(String): closing such a statement resets it for reuse instead of closing it, so
+// repeated calls (login, score updates, ...) skip the server-side parse after the first time.
+// With DBConfig.JDBC_METRICS on, each borrow is timed as an operation named after its caller
+// (see MetricsRegistry), and the statements and result sets it hands out count rows and errors.
+// While a flight recording is running, each borrow is also emitted as a QuizEvents.DatabaseCall.
+public class ConnectionPool {
+    // Connections idle for less than this are handed out without an isValid() round trip
+    private static final long VALIDATION_SKIP_MS = 1_000;
+
+    // Statement settings that outlive close(); a statement that changed any of them is not reused
+    private static final Set<String> STATEMENT_STATE_METHODS = Set.of("setMaxRows", "setLargeMaxRows",
+            "setFetchSize", "setFetchDirection", "setQueryTimeout", "setMaxFieldSize", "setEscapeProcessing",
+            "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private static final EventType DATABASE_CALL_EVENT = EventType.getEventType(QuizEvents.DatabaseCall.class);
+
+    private static volatile ConnectionPool instance;
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int statementCacheSize;
+    private final int maxSize;
+    private final int minIdle;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final int validationTimeoutSeconds;
+
+    // Most recently returned connection first, so warm connections are reused and cold ones age out
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    // Physical connections open or being opened; a slot is reserved here before each connect,
+    // so borrowers and the housekeeping refill together never exceed maxSize
+    private final AtomicInteger open = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+    // Run at the start of shutdown() while connections are still available, e.g. final flushes
+    private final CopyOnWriteArrayList<Runnable> beforeShutdown = new CopyOnWriteArrayList<>();
+
+    // Metrics
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong totalAcquireNanos = new AtomicLong();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final MetricsRegistry metrics = DBConfig.JDBC_METRICS ? MetricsRegistry.getInstance() : null;
+    private final MetricsRegistry.OperationMetrics acquireMetrics =
+            metrics == null ? null : metrics.operation("ConnectionPool.acquire");
+
+    // connectionProperties go to the driver as-is (user and password included);
+    // statementCacheSize is the number of prepared statements kept open per connection, 0 to disable
+    public ConnectionPool(String url, Properties connectionProperties, int statementCacheSize,
+                          int maxSize, int minIdle, long acquireTimeoutMs, long idleTimeoutMs,
+                          long maxLifetimeMs, long housekeepingIntervalMs, int validationTimeoutSeconds) {
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.statementCacheSize = statementCacheSize;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                housekeepingIntervalMs, housekeepingIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Shared pool for the whole application, built from DBConfig on first use
+    public static ConnectionPool getInstance() {
+        ConnectionPool pool = instance;
+        if (pool == null) {
+            synchronized (ConnectionPool.class) {
+                pool = instance;
+                if (pool == null) {
+                    pool = new ConnectionPool(DBConfig.URL, mysqlProperties(), DBConfig.POOL_STATEMENT_CACHE_SIZE,
+                            DBConfig.POOL_MAX_SIZE, DBConfig.POOL_MIN_IDLE,
+                            DBConfig.POOL_ACQUIRE_TIMEOUT_MS, DBConfig.POOL_IDLE_TIMEOUT_MS,
+                            DBConfig.POOL_MAX_LIFETIME_MS, DBConfig.POOL_HOUSEKEEPING_INTERVAL_MS,
+                            DBConfig.POOL_VALIDATION_TIMEOUT_SECONDS);
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "connection-pool-shutdown"));
+                    pool.registerGauges(MetricsRegistry.getInstance());
+                    instance = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    // Connector/J settings: prepare statements on the server (parsed once, executed over the binary
+    // protocol) and cache those server-side handles in the driver as well. Batched INSERTs are sent
+    // as multi-row statements.
+    private static Properties mysqlProperties() {
+        Properties props = new Properties();
+        props.setProperty("user", DBConfig.USER);
+        props.setProperty("password", DBConfig.PASS);
+        props.setProperty("useServerPrepStmts", "true");
+        props.setProperty("cachePrepStmts", "true");
+        props.setProperty("prepStmtCacheSize", String.valueOf(DBConfig.DRIVER_PREP_STMT_CACHE_SIZE));
+        props.setProperty("prepStmtCacheSqlLimit", String.valueOf(DBConfig.DRIVER_PREP_STMT_CACHE_SQL_LIMIT));
+        props.setProperty("rewriteBatchedStatements", "true");
+        return props;
+    }
+
+    private void registerGauges(MetricsRegistry registry) {
+        registry.registerGauge("pool_active_connections", active::get);
+        registry.registerGauge("pool_idle_connections", idle::size);
+        registry.registerGauge("pool_open_connections", open::get);
+        registry.registerGauge("pool_max_connections", () -> maxSize);
+        registry.registerGauge("pool_acquisitions", acquisitions::get);
+        registry.registerGauge("pool_acquire_timeouts", acquireTimeouts::get);
+        registry.registerGauge("pool_acquire_average_ms", () -> {
+            long count = acquisitions.get();
+            return count == 0 ? 0 : totalAcquireNanos.get() / 1_000_000.0 / count;
+        });
+        registry.registerGauge("pool_acquire_max_ms", () -> maxAcquireNanos.get() / 1_000_000.0);
+        registry.registerGauge("pool_connections_created", created::get);
+        registry.registerGauge("pool_connections_destroyed", destroyed::get);
+        registry.registerGauge("pool_validation_failures", validationFailures::get);
+        registry.registerGauge("pool_statement_cache_hits", statementCacheHits::get);
+        registry.registerGauge("pool_statement_cache_misses", statementCacheMisses::get);
+        registry.registerGauge("pool_statement_cache_evictions", statementCacheEvictions::get);
+    }
+
+    // Borrow a connection; close() on the returned object gives it back to the pool.
+    // The borrow is recorded under the calling method's name.
+    public Connection getConnection() throws SQLException {
+        boolean tracing = metrics != null || DATABASE_CALL_EVENT.isEnabled();
+        return getConnection(tracing ? MetricsRegistry.callerName() : null);
+    }
+
+    // Same, recorded under an explicit operation name
+    public Connection getConnection(String operationName) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is shut down");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        OperationTrace trace = startTrace(operationName, start);
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw acquireTimeout(trace);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failTrace(trace);
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        PooledEntry entry;
+        try {
+            entry = takeUsableEntry(deadline);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            failTrace(trace);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permits.release();
+            failTrace(trace);
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (entry == null) {
+            permits.release();
+            throw acquireTimeout(trace);
+        }
+        active.incrementAndGet();
+        recordAcquire(System.nanoTime() - start);
+        return entry.lease(trace);
+    }
+
+    private SQLTimeoutException acquireTimeout(OperationTrace trace) {
+        acquireTimeouts.incrementAndGet();
+        if (acquireMetrics != null) {
+            acquireMetrics.recordError();
+        }
+        failTrace(trace);
+        return new SQLTimeoutException("Timed out after " + acquireTimeoutMs
+                + " ms waiting for a database connection (" + maxSize + " in use)");
+    }
+
+    // Null when neither metrics nor a flight recording want this borrow
+    private OperationTrace startTrace(String operationName, long start) {
+        if (operationName == null) {
+            return null;
+        }
+        MetricsRegistry.OperationMetrics operationMetrics = metrics == null ? null : metrics.operation(operationName);
+        QuizEvents.DatabaseCall event = null;
+        if (DATABASE_CALL_EVENT.isEnabled()) {
+            event = new QuizEvents.DatabaseCall();
+            event.operation = operationName;
+            event.begin();
+        }
+        return operationMetrics == null && event == null ? null : new OperationTrace(operationMetrics, event, start);
+    }
+
+    // The borrow failed before a connection was handed out
+    private static void failTrace(OperationTrace trace) {
+        if (trace != null) {
+            trace.recordError();
+            trace.commitEvent();
+        }
+    }
+
+    // An idle connection, else a new one if a slot is free. With every slot taken, some connection
+    // is idle or on its way there (the caller holds a permit, so at most maxSize - 1 are leased),
+    // so wait for it; null if none turns up before the deadline.
+    private PooledEntry takeUsableEntry(long deadline) throws SQLException, InterruptedException {
+        while (true) {
+            PooledEntry entry = idle.pollFirst();
+            if (entry == null) {
+                if (reserveSlot()) {
+                    return createEntry();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                entry = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    continue;
+                }
+            }
+            if (entry.isExpired(System.currentTimeMillis()) || !validate(entry)) {
+                destroy(entry);
+                continue;
+            }
+            return entry;
+        }
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        while ((current = open.get()) < maxSize) {
+            if (open.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean validate(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastUsedAt < VALIDATION_SKIP_MS) {
+            return true;
+        }
+        try {
+            if (entry.physical.isValid(validationTimeoutSeconds)) {
+                return true;
+            }
+        } catch (SQLException ignored) {
+            // treated as invalid below
+        }
+        validationFailures.incrementAndGet();
+        return false;
+    }
+
+    // Opens a connection in a slot taken with reserveSlot(); the slot is given back if that fails
+    private PooledEntry createEntry() throws SQLException {
+        Connection physical;
+        try {
+            physical = DriverManager.getConnection(url, connectionProperties);
+        } catch (SQLException | RuntimeException e) {
+            open.decrementAndGet();
+            throw e;
+        }
+        created.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    private void recordAcquire(long nanos) {
+        acquisitions.incrementAndGet();
+        totalAcquireNanos.addAndGet(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+        if (acquireMetrics != null) {
+            acquireMetrics.record(nanos);
+        }
+    }
+
+    // Cause of a failed reflective call, counted against the borrow if it is a database error
+    private static Throwable failure(InvocationTargetException e, OperationTrace trace) {
+        Throwable cause = e.getCause();
+        if (trace != null && cause instanceof SQLException) {
+            trace.recordError();
+        }
+        return cause;
+    }
+
+    // Statements and result sets handed to a borrower are wrapped so rows and errors count against its borrow
+    private static Object traced(Object result, OperationTrace trace) {
+        if (trace == null || !(result instanceof Statement || result instanceof ResultSet)) {
+            return result;
+        }
+        Class<?> type = result instanceof ResultSet ? ResultSet.class
+                : result instanceof CallableStatement ? CallableStatement.class
+                : result instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{type},
+                new TracingHandler(result, trace));
+    }
+
+    // Rows and errors of one borrow, reported to MetricsRegistry and the JFR event when it is returned.
+    // Only touched by the borrowing thread, like the connection itself.
+    private static final class OperationTrace {
+        private final MetricsRegistry.OperationMetrics metrics;
+        private final QuizEvents.DatabaseCall event;
+        private final long start;
+        private long rows;
+        private boolean failed;
+
+        private OperationTrace(MetricsRegistry.OperationMetrics metrics, QuizEvents.DatabaseCall event, long start) {
+            this.metrics = metrics;
+            this.event = event;
+            this.start = start;
+        }
+
+        private void addRow() {
+            rows++;
+        }
+
+        private void recordError() {
+            failed = true;
+            if (metrics != null) {
+                metrics.recordError();
+            }
+        }
+
+        private void finish() {
+            if (metrics != null) {
+                metrics.record(System.nanoTime() - start);
+                metrics.addRows(rows);
+            }
+            commitEvent();
+        }
+
+        private void commitEvent() {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.rows = rows;
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    // Called when a borrowed connection is closed by the caller
+    private void release(PooledEntry entry) {
+        active.decrementAndGet();
+        entry.reclaimStatements();
+        try {
+            if (closed || entry.physical.isClosed() || entry.isExpired(System.currentTimeMillis())) {
+                destroy(entry);
+                return;
+            }
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            entry.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        destroyed.incrementAndGet();
+        open.decrementAndGet();
+        entry.dropStatements();
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // connection is being discarded anyway
+        }
+    }
+
+    // Evicts idle and over-age connections, then tops the pool back up to minIdle
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        int idleCount = idle.size();
+        Iterator<PooledEntry> it = idle.descendingIterator(); // oldest first
+        while (it.hasNext()) {
+            PooledEntry entry = it.next();
+            boolean idleTooLong = now - entry.lastUsedAt > idleTimeoutMs && idleCount > minIdle;
+            if ((idleTooLong || entry.isExpired(now)) && idle.remove(entry)) {
+                destroy(entry);
+                idleCount--;
+            }
+        }
+
+        while (!closed && idle.size() < minIdle && reserveSlot()) {
+            try {
+                idle.offerLast(createEntry());
+            } catch (SQLException e) {
+                System.out.println("❌ Connection pool refill error: " + e.getMessage());
+                break;
+            }
+        }
+    }
+
+    // Registers work that must still reach the database when the pool shuts down
+    public void runBeforeShutdown(Runnable task) {
+        beforeShutdown.add(task);
+    }
+
+    public synchronized void shutdown() {
+        if (closed) {
+            return;
+        }
+        for (Runnable task : beforeShutdown) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.out.println("❌ Shutdown task error: " + e.getMessage());
+            }
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    // One physical connection plus its bookkeeping
+    private final class PooledEntry {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = createdAt;
+        // Least recently used first; only touched by the current borrower, plus reclaim on release
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        private boolean isExpired(long now) {
+            return now - createdAt > maxLifetimeMs;
+        }
+
+        private Connection lease(OperationTrace trace) {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this, trace));
+        }
+
+        // prepareStatement(sql) through the cache; the result is reset and kept when the caller closes it
+        private PreparedStatement prepare(Connection lease, String sql, OperationTrace trace) throws SQLException {
+            synchronized (statements) {
+                CachedStatement cached = statements.get(sql);
+                if (cached != null && !cached.inUse && !cached.physical.isClosed()) {
+                    statementCacheHits.incrementAndGet();
+                    cached.inUse = true;
+                    return cached.lease(this, lease, trace);
+                }
+                statementCacheMisses.incrementAndGet();
+                PreparedStatement physicalStatement = physical.prepareStatement(sql);
+                if (cached != null && cached.inUse) {
+                    // Same SQL already open on this connection (e.g. nested loops); this one is not kept
+                    return (PreparedStatement) traced(physicalStatement, trace);
+                }
+                CachedStatement fresh = new CachedStatement(sql, physicalStatement);
+                fresh.inUse = true;
+                statements.put(sql, fresh);
+                if (statements.size() > statementCacheSize) {
+                    Iterator<CachedStatement> eldest = statements.values().iterator();
+                    evict(eldest.next());
+                    eldest.remove();
+                }
+                return fresh.lease(this, lease, trace);
+            }
+        }
+
+        private void evict(CachedStatement cached) {
+            statementCacheEvictions.incrementAndGet();
+            cached.evicted = true;
+            if (!cached.inUse) {
+                closeQuietly(cached.physical);
+            }
+        }
+
+        // Called when the borrower closes a cached statement
+        private void recycle(CachedStatement cached, boolean reusable) {
+            if (reusable && !cached.evicted) {
+                try {
+                    ResultSet rs = cached.physical.getResultSet();
+                    if (rs != null) {
+                        rs.close();
+                    }
+                    cached.physical.clearParameters();
+                    cached.physical.clearBatch();
+                    cached.physical.clearWarnings();
+                } catch (SQLException e) {
+                    reusable = false;
+                }
+            }
+            synchronized (statements) {
+                cached.inUse = false;
+                if (!reusable || cached.evicted) {
+                    statements.remove(cached.sql, cached);
+                    closeQuietly(cached.physical);
+                }
+            }
+        }
+
+        // Statements the borrower left open are closed so a later borrower never sees their state
+        private void reclaimStatements() {
+            synchronized (statements) {
+                Iterator<CachedStatement> it = statements.values().iterator();
+                while (it.hasNext()) {
+                    CachedStatement cached = it.next();
+                    if (cached.inUse) {
+                        it.remove();
+                        cached.evicted = true;
+                        closeQuietly(cached.physical);
+                    }
+                }
+            }
+        }
+
+        // Closing the physical connection closes its statements
+        private void dropStatements() {
+            synchronized (statements) {
+                statements.clear();
+            }
+        }
+
+        // Delegates to a cached statement until the borrower closes it
+        private final class StatementHandler implements InvocationHandler {
+            private final CachedStatement cached;
+            private final Connection connection;
+            private final OperationTrace trace;
+            private boolean closed;
+            private boolean reusable = true;
+
+            private StatementHandler(CachedStatement cached, Connection connection, OperationTrace trace) {
+                this.cached = cached;
+                this.connection = connection;
+                this.trace = trace;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            recycle(cached, reusable);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || cached.physical.isClosed();
+                    case "getConnection":
+                        return connection;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "CachedStatement[" + cached.sql + "]";
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("Statement is closed");
+                }
+                if (STATEMENT_STATE_METHODS.contains(method.getName())) {
+                    reusable = false;
+                }
+                try {
+                    return traced(method.invoke(cached.physical, args), trace);
+                } catch (InvocationTargetException e) {
+                    throw failure(e, trace);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // statement is being discarded anyway
+        }
+    }
+
+    // Server-prepared statement kept open on its connection between borrowers
+    private static final class CachedStatement {
+        private final String sql;
+        private final PreparedStatement physical;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String sql, PreparedStatement physical) {
+            this.sql = sql;
+            this.physical = physical;
+        }
+
+        private PreparedStatement lease(PooledEntry entry, Connection connection, OperationTrace trace) {
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, entry.new StatementHandler(this, connection, trace));
+        }
+    }
+
+    // Delegates to a statement or result set, counting rows read and SQLExceptions for the borrow
+    private static final class TracingHandler implements InvocationHandler {
+        private final Object target;
+        private final OperationTrace trace;
+
+        private TracingHandler(Object target, OperationTrace trace) {
+            this.target = target;
+            this.trace = trace;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw failure(e, trace);
+            }
+            if (target instanceof ResultSet) {
+                if (result == Boolean.TRUE && method.getName().equals("next")) {
+                    trace.addRow();
+                }
+                return result;
+            }
+            return traced(result, trace);
+        }
+    }
+
+    // Delegates to the physical connection until the borrower closes it
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private final OperationTrace trace;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private LeaseHandler(PooledEntry entry, OperationTrace trace) {
+            this.entry = entry;
+            this.trace = trace;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(entry);
+                        if (trace != null) {
+                            trace.finish();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (statementCacheSize > 0 && method.getName().equals("prepareStatement") && args.length == 1) {
+                try {
+                    return entry.prepare((Connection) proxy, (String) args[0], trace);
+                } catch (SQLException e) {
+                    if (trace != null) {
+                        trace.recordError();
+                    }
+                    throw e;
+                }
+            }
+            try {
+                return traced(method.invoke(entry.physical, args), trace);
+            } catch (InvocationTargetException e) {
+                throw failure(e, trace);
+            }
+        }
+    }
+}
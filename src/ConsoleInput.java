@@ -0,0 +1,151 @@
+package service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.CharBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Single owner of System.in for the console front-end.
+// One daemon thread reads lines into a queue; callers either block for the next line or wait
+// until a deadline, so timed quiz questions need no per-question thread or polling loop.
+// Implements Readable so a Scanner can be layered on top for the menu prompts.
+public class ConsoleInput implements Readable {
+    private static final ConsoleInput SHARED = new ConsoleInput(System.in);
+
+    // Marks end of input; re-queued so every later read also sees it
+    private static final String EOF = new String("<eof>");
+
+    private final InputStream in;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private Thread readerThread;
+
+    // Leftover of a line partially handed to a Scanner
+    private String pending;
+    private int pendingOffset;
+
+    public ConsoleInput(InputStream in) {
+        this.in = in;
+    }
+
+    public static ConsoleInput shared() {
+        return SHARED;
+    }
+
+    private synchronized void ensureStarted() {
+        if (readerThread != null) {
+            return;
+        }
+        readerThread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.put(line);
+                }
+            } catch (IOException ignored) {
+                // treated as end of input
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.offer(EOF);
+        }, "console-input");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    // Blocks for the next line; null at end of input
+    public String readLine() throws InterruptedException {
+        ensureStarted();
+        return unwrap(lines.take());
+    }
+
+    // Waits up to the timeout for the next line; null on timeout or end of input
+    public String readLine(long timeout, TimeUnit unit) throws InterruptedException {
+        ensureStarted();
+        return unwrap(lines.poll(timeout, unit));
+    }
+
+    private String unwrap(String line) {
+        if (line == EOF) {
+            lines.offer(EOF);
+            return null;
+        }
+        return line;
+    }
+
+    // Drops anything typed ahead so it is not taken as the answer to the next question
+    public void discardPending() {
+        String line;
+        while ((line = lines.poll()) != null) {
+            if (line == EOF) {
+                lines.offer(EOF);
+                return;
+            }
+        }
+    }
+
+    // Reads an answer in [min, max] before the time limit expires; null on timeout or invalid input
+    public Integer readTimedChoice(int min, int max, long timeLimitMillis) {
+        discardPending();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                String line = readLine(remaining, TimeUnit.NANOSECONDS);
+                if (line == null) {
+                    return null;
+                }
+                String input = line.trim();
+                if (input.isEmpty()) {
+                    continue;
+                }
+                try {
+                    int answer = Integer.parseInt(input);
+                    if (answer >= min && answer <= max) {
+                        return answer;
+                    }
+                    System.out.println("Please enter a number between " + min + "-" + max);
+                    return null;
+                } catch (NumberFormatException e) {
+                    System.out.println("Please enter a valid number");
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public int read(CharBuffer cb) throws IOException {
+        if (pending == null) {
+            String line;
+            try {
+                line = readLine();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading console input", e);
+            }
+            if (line == null) {
+                return -1;
+            }
+            pending = line + "\n";
+            pendingOffset = 0;
+        }
+
+        int count = Math.min(cb.remaining(), pending.length() - pendingOffset);
+        cb.put(pending, pendingOffset, pendingOffset + count);
+        pendingOffset += count;
+        if (pendingOffset == pending.length()) {
+            pending = null;
+        }
+        return count;
+    }
+}
@@ -1,5 +1,6 @@
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,55 +11,77 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import model.Course;
-import model.Question;
 import model.User;
 import model.QuizConfig;
+import service.AsyncDataService;
+import service.CourseLeaderboardService;
+import service.QuizEvents;
+import service.QuizFlow;
+import service.QuizSession;
 import service.UserManager;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class CourseBasedQuizController {
     private Stage primaryStage;
     private UserManager userManager;
     private User student;
     private Course course;
-    private List<Question> questions;
-    private int currentQuestionIndex = 0;
-    private int score = 0;
+    private QuizFlow session;
+    private boolean busy; // an answer, skip or timeout is on its way to the session
     private Timeline timer;
-    private Label timerLabel;
+    private QuizTimerLabel timerLabel;
     private int timeRemaining;
-    private ToggleGroup answerGroup;
-    private VBox questionContainer;
+    private QuestionView questionView;
     private QuizConfig quizConfig;
+    private AsyncDataService asyncData;
 
     public CourseBasedQuizController(Stage primaryStage, UserManager userManager, User student, Course course) {
         this.primaryStage = primaryStage;
         this.userManager = userManager;
         this.student = student;
         this.course = course;
-
-        // Load quiz configuration for this course
-        this.quizConfig = userManager.getQuizConfig(course.getCourseId());
-        this.timeRemaining = quizConfig.getTimePerQuestion();
-
-        loadQuestionsFromCourse();
+        this.asyncData = new AsyncDataService(userManager);
     }
 
-    private void loadQuestionsFromCourse() {
-        questions = userManager.getQuestionsByCourse(course.getCourseId());
-        Collections.shuffle(questions);
+    public void show() {
+        VBox root = new VBox(20);
+        root.setPadding(new Insets(30));
+        root.setAlignment(Pos.CENTER);
+        root.setStyle("-fx-background-color: linear-gradient(to bottom, #667eea 0%, #764ba2 100%);");
 
-        // Use configurable question limit instead of hardcoded 10
-        int questionLimit = quizConfig.getQuestionLimit();
-        if (questions.size() > questionLimit) {
-            questions = questions.subList(0, questionLimit);
-        }
+        Label loadingLabel = new Label("⏳ Preparing " + course.getCourseName() + " quiz...");
+        loadingLabel.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        loadingLabel.setStyle("-fx-text-fill: white;");
+        root.getChildren().add(loadingLabel);
+
+        primaryStage.setScene(new Scene(root, 700, 500));
+
+        // Quiz configuration and question sample, loaded off the FX thread unless the previous
+        // attempt at this course already prepared them
+        asyncData.prepareQuiz(course.getCourseId()).whenCompleteAsync((prepared, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                System.out.println("❌ Error preparing quiz: " + cause.getMessage());
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Quiz Error");
+                alert.setHeaderText("Quiz Unavailable");
+                alert.setContentText("The " + course.getCourseName() + " quiz could not be loaded. Please try again later.");
+                alert.showAndWait();
+                returnToCourseSelection();
+                return;
+            }
+            quizConfig = prepared.getConfig();
+            session = prepared.getQuiz();
+            showQuiz();
+        }, Platform::runLater);
     }
 
-    public void show() {
-        if (questions.isEmpty()) {
+    private void showQuiz() {
+        timeRemaining = quizConfig.getTimePerQuestion();
+
+        if (session.getQuestionCount() == 0) {
             Alert alert = new Alert(Alert.AlertType.WARNING);
             alert.setTitle("No Questions");
             alert.setHeaderText("Quiz Unavailable");
@@ -85,17 +108,13 @@ public class CourseBasedQuizController {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        timerLabel = new Label("⏰ " + quizConfig.getTimePerQuestion() + "s");
-        timerLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-        timerLabel.setStyle("-fx-text-fill: #ffeb3b; -fx-background-color: rgba(0,0,0,0.3); -fx-padding: 5 10; -fx-background-radius: 15;");
+        timerLabel = new QuizTimerLabel(10, 5);
+        timerLabel.setSeconds(quizConfig.getTimePerQuestion());
 
         header.getChildren().addAll(quizTitle, spacer, timerLabel);
 
-        // Question container
-        questionContainer = new VBox(15);
-        questionContainer.setAlignment(Pos.CENTER);
-        questionContainer.setPadding(new Insets(20));
-        questionContainer.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 15;");
+        // Question card, reused for every question
+        questionView = new QuestionView(course.getCourseName());
 
         // Navigation buttons
         HBox buttonBox = new HBox(20);
@@ -111,60 +130,34 @@ public class CourseBasedQuizController {
 
         buttonBox.getChildren().addAll(submitBtn, skipBtn, quitBtn);
 
-        root.getChildren().addAll(header, questionContainer, buttonBox);
+        root.getChildren().addAll(header, questionView, buttonBox);
 
         Scene scene = new Scene(root, 700, 500);
         primaryStage.setScene(scene);
 
         showCurrentQuestion();
         startTimer();
+        prefetchNextScreens();
+    }
+
+    // While the student answers, load what the screens after the quiz need: the course list for
+    // course selection, this course's ranking for the leaderboard and the next attempt at this course
+    private void prefetchNextScreens() {
+        asyncData.prefetchCourses();
+        asyncData.prefetchCourseLeaderboard(course.getCourseId(), CourseLeaderboardService.Metric.BEST);
+        asyncData.prefetchQuiz(course.getCourseId());
     }
 
     private void showCurrentQuestion() {
-        if (currentQuestionIndex >= questions.size()) {
+        if (session.isFinished()) {
             endQuiz();
             return;
         }
 
-        questionContainer.getChildren().clear();
-
-        Question currentQuestion = questions.get(currentQuestionIndex);
-
-        // Question number and text
-        Label questionNumber = new Label("Question " + (currentQuestionIndex + 1) + " of " + questions.size());
-        questionNumber.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-        questionNumber.setStyle("-fx-text-fill: #666;");
-
-        Label courseLabel = new Label("📚 " + course.getCourseName());
-        courseLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
-        courseLabel.setStyle("-fx-text-fill: #888;");
-
-        Label difficultyLabel = new Label("🎯 Difficulty: " + (currentQuestion.getDifficultyLevel() != null ? currentQuestion.getDifficultyLevel() : "Medium"));
-        difficultyLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
-        difficultyLabel.setStyle("-fx-text-fill: #888;");
-
-        Label questionText = new Label(currentQuestion.getText());
-        questionText.setFont(Font.font("Arial", FontWeight.NORMAL, 16));
-        questionText.setStyle("-fx-text-fill: #333;");
-        questionText.setWrapText(true);
-
-        // Answer options
-        answerGroup = new ToggleGroup();
-        VBox optionsBox = new VBox(10);
-
-        String[] options = currentQuestion.getOptions();
-        for (int i = 0; i < options.length; i++) {
-            RadioButton option = new RadioButton((i + 1) + ". " + options[i]);
-            option.setToggleGroup(answerGroup);
-            option.setUserData(i + 1); // Store 1-based index
-            option.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
-            option.setStyle("-fx-text-fill: #333;");
-            optionsBox.getChildren().add(option);
-        }
-
-        questionContainer.getChildren().addAll(questionNumber, courseLabel, difficultyLabel, questionText, optionsBox);
+        questionView.show(session.getCurrentQuestion(), session.getCurrentIndex(), session.getQuestionCount());
 
-        // Reset timer to configurable value
+        // The session owns the per-question deadline; the label only mirrors it
+        session.startQuestion();
         timeRemaining = quizConfig.getTimePerQuestion();
         updateTimerDisplay();
     }
@@ -174,13 +167,13 @@ public class CourseBasedQuizController {
             timer.stop();
         }
 
-        timer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            timeRemaining--;
+        timer = new Timeline(new KeyFrame(Duration.millis(250), e -> {
+            timeRemaining = (int) Math.ceil(session.getRemainingMillis() / 1000.0);
             updateTimerDisplay();
 
-            if (timeRemaining <= 0) {
+            if (session.isExpired() && !busy) {
                 timer.stop();
-                skipQuestion();
+                whenRecorded(asyncData.expireQuestion(session), outcome -> advanceAfterSkip());
             }
         }));
         timer.setCycleCount(Timeline.INDEFINITE);
@@ -188,51 +181,67 @@ public class CourseBasedQuizController {
     }
 
     private void updateTimerDisplay() {
-        timerLabel.setText("⏰ " + timeRemaining + "s");
-        if (timeRemaining <= 5) {
-            timerLabel.setStyle("-fx-text-fill: #f44336; -fx-background-color: rgba(244,67,54,0.2); -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-weight: bold;");
-        } else if (timeRemaining <= 10) {
-            timerLabel.setStyle("-fx-text-fill: #FF9800; -fx-background-color: rgba(255,152,0,0.2); -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-weight: bold;");
-        } else {
-            timerLabel.setStyle("-fx-text-fill: #ffeb3b; -fx-background-color: rgba(0,0,0,0.3); -fx-padding: 5 10; -fx-background-radius: 15; -fx-font-weight: bold;");
-        }
+        timerLabel.setSeconds(timeRemaining);
+    }
+
+    // Runs then on the FX thread once the session has recorded the action. A server-held quiz
+    // answers over the network, so the buttons are ignored until then.
+    private void whenRecorded(CompletableFuture<QuizSession.Outcome> action, Consumer<QuizSession.Outcome> then) {
+        busy = true;
+        action.whenCompleteAsync((outcome, error) -> {
+            busy = false;
+            if (error != null) {
+                System.out.println("❌ Error recording answer: " + error.getMessage());
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Quiz Error");
+                alert.setHeaderText("Could not record your answer");
+                alert.setContentText("The quiz could not continue. Please try again later.");
+                alert.showAndWait();
+                returnToCourseSelection();
+                return;
+            }
+            then.accept(outcome);
+        }, Platform::runLater);
     }
 
     private void submitAnswer() {
+        if (busy) {
+            return;
+        }
         if (timer != null) {
             timer.stop();
         }
 
-        if (currentQuestionIndex >= questions.size()) {
+        if (session.isFinished()) {
             endQuiz();
             return;
         }
 
-        RadioButton selectedOption = (RadioButton) answerGroup.getSelectedToggle();
-        if (selectedOption != null) {
-            int answer = (Integer) selectedOption.getUserData();
-            Question currentQuestion = questions.get(currentQuestionIndex);
-
-            if (currentQuestion.checkAnswer(answer)) {
-                score++;
-                showFeedback(true);
-            } else {
-                showFeedback(false);
-            }
-        } else {
+        Integer answer = questionView.getSelectedAnswer();
+        if (answer == null) {
+            session.pause();
             Alert alert = new Alert(Alert.AlertType.WARNING);
             alert.setTitle("No Answer Selected");
             alert.setHeaderText("Please select an answer");
             alert.setContentText("You must select an answer before submitting.");
             alert.showAndWait();
+            session.resume();
             startTimer(); // Restart timer
             return;
         }
 
-        currentQuestionIndex++;
+        whenRecorded(asyncData.submitAnswer(session, answer), this::afterSubmit);
+    }
+
+    private void afterSubmit(QuizSession.Outcome outcome) {
+        if (outcome == QuizSession.Outcome.TIMED_OUT) {
+            advanceAfterSkip();
+            return;
+        }
+        showFeedback(outcome == QuizSession.Outcome.CORRECT);
 
         // Check if this was the last question
-        if (currentQuestionIndex >= questions.size()) {
+        if (session.isFinished()) {
             // Make sure timer is stopped and won't restart
             if (timer != null) {
                 timer.stop();
@@ -252,15 +261,26 @@ public class CourseBasedQuizController {
     }
 
     private void skipQuestion() {
+        if (busy) {
+            return;
+        }
         if (timer != null) {
             timer.stop();
         }
 
+        if (session.isFinished()) {
+            endQuiz();
+            return;
+        }
+
+        whenRecorded(asyncData.skipQuestion(session), outcome -> advanceAfterSkip());
+    }
+
+    private void advanceAfterSkip() {
         showSkipMessage();
-        currentQuestionIndex++;
 
         // Check if this was the last question
-        if (currentQuestionIndex >= questions.size()) {
+        if (session.isFinished()) {
             // Small delay to show skip message then end quiz
             Timeline delay = new Timeline(new KeyFrame(Duration.seconds(1), e -> endQuiz()));
             delay.play();
@@ -275,23 +295,21 @@ public class CourseBasedQuizController {
     }
 
     private void showFeedback(boolean correct) {
-        Label feedback = new Label(correct ? "✅ Correct!" : "❌ Wrong!");
-        feedback.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-        feedback.setStyle(correct ? "-fx-text-fill: #4CAF50;" : "-fx-text-fill: #f44336;");
-        questionContainer.getChildren().add(feedback);
+        questionView.showFeedback(correct);
     }
 
     private void showSkipMessage() {
-        Label skipMsg = new Label("⏰ Time's up! Question skipped.");
-        skipMsg.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-        skipMsg.setStyle("-fx-text-fill: #FF9800;");
-        questionContainer.getChildren().add(skipMsg);
+        questionView.showSkipped();
     }
 
     private void quitQuiz() {
+        if (busy) {
+            return;
+        }
         if (timer != null) {
             timer.stop();
         }
+        session.pause();
 
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Quit Quiz");
@@ -301,6 +319,7 @@ public class CourseBasedQuizController {
         if (alert.showAndWait().get() == ButtonType.OK) {
             returnToCourseSelection();
         } else {
+            session.resume();
             startTimer(); // Resume timer
         }
     }
@@ -310,14 +329,18 @@ public class CourseBasedQuizController {
             timer.stop();
         }
 
-        userManager.updateUserScore(student, score);
+        int score = session.getScore();
+
+        // Persist in the background; the result dialog does not wait on the database
+        QuizEvents.trackPersist(asyncData.finishQuiz(student, course.getCourseId(), quizConfig, session),
+                course.getCourseId(), student.getUsername(), score, session.getQuestionCount());
 
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Quiz Completed");
         alert.setHeaderText("🎉 " + course.getCourseName() + " Quiz Complete!");
         alert.setContentText("Quiz completed!\n\nCourse: " + course.getCourseName() +
-                "\nYour Score: " + score + "/" + questions.size() +
-                "\nPercentage: " + String.format("%.1f", (score * 100.0 / questions.size())) + "%");
+                "\nYour Score: " + score + "/" + session.getQuestionCount() +
+                "\nPercentage: " + String.format("%.1f", session.getPercentage()) + "%");
         alert.showAndWait();
 
         returnToCourseSelection();
@@ -0,0 +1,379 @@
+package service;
+
+import model.CourseScore;
+import model.DBConfig;
+import model.QuizAttempt;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-course leaderboards ranked by best, latest or average score.
+// course_leaderboard holds one summary row per (course, student); AttemptLog upserts it in the same
+// transaction that appends the attempt. In memory each course keeps a bounded top-K heap per metric,
+// updated from the committed summary rows, so showing a course ranking reads K entries instead of
+// aggregating every attempt. A heap whose member dropped (possible for latest and average) is
+// reloaded from the summary table on next read, as is any heap older than REFRESH_INTERVAL_MS.
+public class CourseLeaderboardService {
+    private static final long REFRESH_INTERVAL_MS = 5 * 60_000L;
+
+    public enum Metric {
+        BEST("Best score"),
+        LATEST("Latest score"),
+        AVERAGE("Average score");
+
+        private final String label;
+
+        Metric(String label) {
+            this.label = label;
+        }
+
+        double value(CourseScore score) {
+            switch (this) {
+                case BEST: return score.getBestScore();
+                case LATEST: return score.getLatestScore();
+                default: return score.getAverageScore();
+            }
+        }
+
+        // Ranking order: higher value first, then username
+        Comparator<CourseScore> ranking() {
+            return (a, b) -> {
+                int byValue = Double.compare(value(b), value(a));
+                return byValue != 0 ? byValue : a.getUsername().compareTo(b.getUsername());
+            };
+        }
+
+        String orderBy() {
+            switch (this) {
+                case BEST: return "best_score DESC, username ASC";
+                case LATEST: return "latest_score DESC, username ASC";
+                default: return "total_score / attempts DESC, username ASC";
+            }
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static volatile CourseLeaderboardService instance;
+
+    private final int capacity;
+    private final Map<Integer, Map<Metric, TopK>> boards = new ConcurrentHashMap<>();
+    private volatile boolean schemaReady;
+
+    private CourseLeaderboardService(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static CourseLeaderboardService getInstance() {
+        CourseLeaderboardService service = instance;
+        if (service == null) {
+            synchronized (CourseLeaderboardService.class) {
+                service = instance;
+                if (service == null) {
+                    service = new CourseLeaderboardService(DBConfig.COURSE_LEADERBOARD_SIZE);
+                    instance = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    // Bounded heap of the top students for one course and metric; the worst of them sits at the head
+    private final class TopK {
+        private final Metric metric;
+        private final Comparator<CourseScore> ranking;
+        private final PriorityQueue<CourseScore> heap;
+        private final Map<String, CourseScore> members = new HashMap<>();
+        private boolean complete;   // every student of the course fits in the heap
+        private boolean stale = true;
+        private long loadedAt;
+
+        TopK(Metric metric) {
+            this.metric = metric;
+            this.ranking = metric.ranking();
+            this.heap = new PriorityQueue<>(capacity + 1, ranking.reversed());
+        }
+
+        void load(List<CourseScore> rows) {
+            heap.clear();
+            members.clear();
+            for (CourseScore row : rows) {
+                add(row);
+            }
+            complete = rows.size() < capacity;
+            stale = false;
+            loadedAt = System.currentTimeMillis();
+        }
+
+        boolean needsLoad() {
+            return stale || System.currentTimeMillis() - loadedAt > REFRESH_INTERVAL_MS;
+        }
+
+        boolean contains(String username) {
+            return members.containsKey(username);
+        }
+
+        private void add(CourseScore score) {
+            heap.add(score);
+            members.put(score.getUsername(), score);
+        }
+
+        void apply(CourseScore score) {
+            if (stale) {
+                return; // reloaded in full on next read
+            }
+            CourseScore previous = members.remove(score.getUsername());
+            if (previous != null) {
+                heap.remove(previous);
+                if (!complete && metric.value(score) < metric.value(previous)) {
+                    // A student outside the heap may now rank above this one
+                    stale = true;
+                    return;
+                }
+                add(score);
+            } else if (heap.size() < capacity) {
+                if (complete) {
+                    add(score);
+                } else {
+                    stale = true;
+                }
+            } else if (ranking.compare(score, heap.peek()) < 0) {
+                members.remove(heap.poll().getUsername());
+                add(score);
+                complete = false;
+            } else {
+                complete = false;
+            }
+        }
+
+        List<CourseScore> snapshot(int limit) {
+            List<CourseScore> sorted = new ArrayList<>(heap);
+            sorted.sort(ranking);
+            return sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Top students of a course by the given metric, best first (at most getCapacity() entries)
+    public List<CourseScore> getTop(int courseId, Metric metric, int limit) {
+        Map<Metric, TopK> course = boards.computeIfAbsent(courseId, id -> new EnumMap<>(Metric.class));
+        synchronized (course) {
+            TopK topK = course.computeIfAbsent(metric, TopK::new);
+            if (topK.needsLoad()) {
+                try {
+                    topK.load(loadTop(courseId, metric));
+                } catch (SQLException e) {
+                    System.out.println("❌ Error loading course leaderboard: " + e.getMessage());
+                    return new ArrayList<>();
+                }
+            }
+            return topK.snapshot(Math.min(limit, capacity));
+        }
+    }
+
+    private List<CourseScore> loadTop(int courseId, Metric metric) throws SQLException {
+        String sql = "SELECT course_id, username, best_score, latest_score, attempts, total_score "
+                + "FROM course_leaderboard WHERE course_id = ? ORDER BY " + metric.orderBy() + " LIMIT ?";
+        List<CourseScore> rows = new ArrayList<>();
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            AttemptLog.getInstance().ensureSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, courseId);
+                ps.setInt(2, capacity);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapRow(rs));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static CourseScore mapRow(ResultSet rs) throws SQLException {
+        return new CourseScore(rs.getInt("course_id"), rs.getString("username"), rs.getInt("best_score"),
+                rs.getInt("latest_score"), rs.getInt("attempts"), rs.getLong("total_score"));
+    }
+
+    // Called by AttemptLog inside its insert transaction
+    void writeSummaries(Connection conn, List<QuizAttempt> batch) throws SQLException {
+        // Assignments run left to right, so latest_score compares against the old updated_at
+        String sql = "INSERT INTO course_leaderboard (course_id, username, best_score, latest_score, attempts, "
+                + "total_score, updated_at) VALUES (?, ?, ?, ?, 1, ?, ?) AS new "
+                + "ON DUPLICATE KEY UPDATE best_score = GREATEST(best_score, new.best_score), "
+                + "latest_score = IF(new.updated_at >= updated_at, new.latest_score, latest_score), "
+                + "attempts = attempts + 1, "
+                + "total_score = total_score + new.total_score, "
+                + "updated_at = GREATEST(updated_at, new.updated_at)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (QuizAttempt attempt : batch) {
+                ps.setInt(1, attempt.getCourseId());
+                ps.setString(2, attempt.getUsername());
+                ps.setInt(3, attempt.getScore());
+                ps.setInt(4, attempt.getScore());
+                ps.setInt(5, attempt.getScore());
+                ps.setTimestamp(6, new Timestamp(attempt.getFinishedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // Called by AttemptLog after commit: feeds the new summary rows into any loaded heaps
+    void applyCommitted(Connection conn, List<QuizAttempt> batch) throws SQLException {
+        Map<Integer, Set<String>> touched = new HashMap<>();
+        for (QuizAttempt attempt : batch) {
+            if (boards.containsKey(attempt.getCourseId())) {
+                touched.computeIfAbsent(attempt.getCourseId(), id -> new HashSet<>()).add(attempt.getUsername());
+            }
+        }
+        if (touched.isEmpty()) {
+            return; // no heap loaded for these courses yet
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT course_id, username, best_score, latest_score, attempts, "
+                + "total_score FROM course_leaderboard WHERE ");
+        List<Object[]> keys = new ArrayList<>();
+        for (Map.Entry<Integer, Set<String>> course : touched.entrySet()) {
+            for (String username : course.getValue()) {
+                sql.append(keys.isEmpty() ? "" : " OR ").append("(course_id = ? AND username = ?)");
+                keys.add(new Object[]{course.getKey(), username});
+            }
+        }
+
+        List<CourseScore> rows = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Object[] key : keys) {
+                ps.setInt(index++, (Integer) key[0]);
+                ps.setString(index++, (String) key[1]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapRow(rs));
+                }
+            }
+        }
+
+        for (CourseScore row : rows) {
+            Map<Metric, TopK> course = boards.get(row.getCourseId());
+            if (course == null) {
+                continue;
+            }
+            synchronized (course) {
+                for (TopK topK : course.values()) {
+                    topK.apply(row);
+                }
+            }
+        }
+    }
+
+    // Created by AttemptLog.ensureSchema, after the attempt tables it is built from
+    void ensureSchema(Connection conn) throws SQLException {
+        if (schemaReady) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS course_leaderboard ("
+                    + "course_id INT NOT NULL, "
+                    + "username VARCHAR(50) NOT NULL, "
+                    + "best_score INT NOT NULL, "
+                    + "latest_score INT NOT NULL, "
+                    + "attempts INT NOT NULL, "
+                    + "total_score BIGINT NOT NULL, "
+                    + "updated_at TIMESTAMP(3) NOT NULL, "
+                    + "PRIMARY KEY (course_id, username), "
+                    + "INDEX idx_course_best (course_id, best_score), "
+                    + "INDEX idx_course_latest (course_id, latest_score))");
+
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                    + "name VARCHAR(100) NOT NULL PRIMARY KEY, "
+                    + "applied_at TIMESTAMP(3) NOT NULL)");
+        }
+        backfillOnce(conn);
+        schemaReady = true;
+    }
+
+    // Attempts logged before the summary table existed are folded into it exactly once. The marker
+    // row is claimed in the same transaction, so a concurrently starting JVM blocks on it and then
+    // skips; later starts never rebuild, so students and courses deleted since stay deleted.
+    // Attempts of users or courses that no longer exist are left out, and rows the live upsert
+    // already wrote are kept.
+    private void backfillOnce(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            int claimed = stmt.executeUpdate("INSERT IGNORE INTO schema_migrations (name, applied_at) "
+                    + "VALUES ('course_leaderboard_backfill', CURRENT_TIMESTAMP(3))");
+            if (claimed == 1) {
+                stmt.executeUpdate("INSERT IGNORE INTO course_leaderboard (course_id, username, best_score, "
+                        + "latest_score, attempts, total_score, updated_at) "
+                        + "SELECT a.course_id, a.username, MAX(a.score), "
+                        + "(SELECT l.score FROM quiz_attempts l WHERE l.course_id = a.course_id "
+                        + "AND l.username = a.username ORDER BY l.finished_at DESC LIMIT 1), "
+                        + "COUNT(*), SUM(a.score), MAX(a.finished_at) "
+                        + "FROM quiz_attempts a "
+                        + "JOIN users u ON u.username = a.username "
+                        + "JOIN courses c ON c.course_id = a.course_id "
+                        + "GROUP BY a.course_id, a.username");
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // A deleted student leaves every course ranking: their summary rows go, and any heap they were
+    // in reloads on next read. Heaps they were not in are unaffected.
+    public void removeStudent(String username) {
+        deleteSummaries("username = ?", ps -> ps.setString(1, username));
+        boards.values().removeIf(course -> {
+            synchronized (course) {
+                for (TopK topK : course.values()) {
+                    if (topK.contains(username)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    // A deleted course's ranking goes with it
+    public void removeCourse(int courseId) {
+        deleteSummaries("course_id = ?", ps -> ps.setInt(1, courseId));
+        boards.remove(courseId);
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private void deleteSummaries(String where, Binder binder) {
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            AttemptLog.getInstance().ensureSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM course_leaderboard WHERE " + where)) {
+                binder.bind(ps);
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Error removing course leaderboard rows: " + e.getMessage());
+        }
+    }
+
+    // Drops every in-memory heap; they reload from the summary table on next read
+    public void invalidateAll() {
+        boards.clear();
+    }
+}
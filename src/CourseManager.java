@@ -1,83 +1,223 @@
 package service;
 
 import model.Course;
-import model.DBConfig;
 import model.Question;
+import model.QuestionBank;
+import model.QuestionCounts;
+import model.QuestionHeader;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class CourseManager {
 
+    private final QuestionBankCache cache = QuestionBankCache.getInstance();
+
     // Get all courses
     public List<Course> getAllCourses() {
-        List<Course> courses = new ArrayList<>();
-        String sql = "SELECT * FROM courses ORDER BY course_name";
+        try {
+            return new ArrayList<>(cache.get("courses", QuestionBankCache.ALL_COURSES, this::loadAllCourses));
+        } catch (SQLException e) {
+            System.out.println("Error loading courses: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    private List<Course> loadAllCourses() throws SQLException {
+        String sql = "SELECT " + RowMappers.COURSE_COLUMNS + " FROM courses ORDER BY course_name";
 
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Course course = new Course(
-                        rs.getInt("course_id"),
-                        rs.getString("course_name"),
-                        rs.getString("course_code"),
-                        rs.getString("description")
-                );
-                courses.add(course);
-            }
-        } catch (SQLException e) {
-            System.out.println("Error loading courses: " + e.getMessage());
+            return Collections.unmodifiableList(RowMappers.COURSE.mapAll(rs));
         }
-        return courses;
     }
 
     // Add new course
     public boolean addCourse(String courseName, String courseCode, String description) {
         String sql = "INSERT INTO courses (course_name, course_code, description) VALUES (?, ?, ?)";
 
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, courseName);
             pstmt.setString(2, courseCode);
             pstmt.setString(3, description);
 
-            return pstmt.executeUpdate() > 0;
+            boolean added = pstmt.executeUpdate() > 0;
+            cache.invalidateAll();
+            return added;
         } catch (SQLException e) {
             System.out.println("Error adding course: " + e.getMessage());
             return false;
         }
     }
 
-    // Get questions by course
+    // Get questions by course (served from the question bank cache)
     public List<Question> getQuestionsByCourse(int courseId) {
-        List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions WHERE course_id = ? ORDER BY id";
+        try {
+            return new ArrayList<>(cache.get("questions", courseId, () -> loadQuestionsByCourse(courseId)));
+        } catch (SQLException e) {
+            System.out.println("Error loading questions for course: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
 
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
+    private List<Question> loadQuestionsByCourse(int courseId) throws SQLException {
+        String sql = "SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions WHERE course_id = ? ORDER BY id";
+
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
-            ResultSet rs = pstmt.executeQuery();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return Collections.unmodifiableList(RowMappers.QUESTION.mapAll(rs));
+            }
+        }
+    }
 
-            while (rs.next()) {
-                String text = rs.getString("question_text");
-                String[] opts = {
-                        rs.getString("option1"),
-                        rs.getString("option2"),
-                        rs.getString("option3"),
-                        rs.getString("option4")
-                };
-                int correct = rs.getInt("correct_option") + 1; // convert 0-based to 1-based
-                questions.add(new Question(text, opts, correct));
+    // The whole bank in columnar form (cached; reloaded after any question change)
+    public QuestionBank getQuestionBank() throws SQLException {
+        return cache.get("questionBank", QuestionBankCache.ALL_COURSES, this::loadQuestionBank);
+    }
+
+    private QuestionBank loadQuestionBank() throws SQLException {
+        QuestionBank.Builder builder = new QuestionBank.Builder();
+        String sql = "SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions ORDER BY course_id, id";
+
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the table
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                String[] options = new String[4];
+                while (rs.next()) {
+                    for (int i = 0; i < options.length; i++) {
+                        options[i] = rs.getString(5 + i);
+                    }
+                    builder.add(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), options,
+                            rs.getInt(9) + 1); // convert 0-based to 1-based
+                }
             }
+        }
+        return builder.build();
+    }
+
+    // Ids of every question in a course, ascending (cached; shared array must not be modified)
+    public int[] getQuestionIdsByCourse(int courseId) throws SQLException {
+        return cache.get("questionIds", courseId, () -> loadQuestionIdsByCourse(courseId));
+    }
+
+    private int[] loadQuestionIdsByCourse(int courseId) throws SQLException {
+        String sql = "SELECT id FROM questions WHERE course_id = ? ORDER BY id";
+        int[] ids = new int[64];
+        int count = 0;
+
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, courseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = rs.getInt(1);
+                }
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    // Fetch only the given questions, returned in the same order as the ids
+    public List<Question> getQuestionsByIds(int[] ids) throws SQLException {
+        List<Question> ordered = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return ordered;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions WHERE id IN (");
+        for (int i = 0; i < ids.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        Map<Integer, Question> byId = new HashMap<>();
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 1, ids[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Question question = RowMappers.QUESTION.map(rs);
+                    byId.put(question.getQuestionId(), question);
+                }
+            }
+        }
+
+        for (int id : ids) {
+            Question question = byId.get(id);
+            if (question != null) { // may have been deleted since the id list was cached
+                ordered.add(question);
+            }
+        }
+        return ordered;
+    }
+
+    // A single question with text and options, or null if it no longer exists
+    public Question getQuestionById(int questionId) {
+        try {
+            List<Question> found = getQuestionsByIds(new int[]{questionId});
+            return found.isEmpty() ? null : found.get(0);
         } catch (SQLException e) {
-            System.out.println("Error loading questions for course: " + e.getMessage());
+            System.out.println("Error loading question: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // Headers (id, course, difficulty) of up to limit questions with ids above afterQuestionId,
+    // ascending, for listing screens that page through the bank as they scroll; courseId null pages
+    // through every course. Fetch the full question only for a row that is opened (getQuestionById).
+    // Not cached.
+    public List<QuestionHeader> getQuestionHeaderPage(Integer courseId, int afterQuestionId, int limit) {
+        String sql = "SELECT " + RowMappers.QUESTION_HEADER_COLUMNS + " FROM questions WHERE id > ?"
+                + (courseId != null ? " AND course_id = ?" : "") + " ORDER BY id LIMIT ?";
+
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            pstmt.setInt(index++, afterQuestionId);
+            if (courseId != null) {
+                pstmt.setInt(index++, courseId);
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return RowMappers.QUESTION_HEADER.mapAll(rs);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error loading question page: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    // Get every question in the bank, regardless of course (served from the question bank cache)
+    public List<Question> getAllQuestions() {
+        try {
+            return new ArrayList<>(cache.get("questions", QuestionBankCache.ALL_COURSES, this::loadAllQuestions));
+        } catch (SQLException e) {
+            System.out.println("Question load error: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    private List<Question> loadAllQuestions() throws SQLException {
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions ORDER BY id")) {
+            return Collections.unmodifiableList(RowMappers.QUESTION.mapAll(rs));
         }
-        return questions;
     }
 
     // Add question to specific course
@@ -86,7 +226,7 @@ public class CourseManager {
                                        int correctOption, String difficulty) {
         String sql = "INSERT INTO questions (course_id, question_text, option1, option2, option3, option4, correct_option, difficulty_level) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
@@ -98,7 +238,9 @@ public class CourseManager {
             pstmt.setInt(7, correctOption - 1); // convert 1-based to 0-based for DB
             pstmt.setString(8, difficulty);
 
-            return pstmt.executeUpdate() > 0;
+            boolean added = pstmt.executeUpdate() > 0;
+            cache.invalidateCourse(courseId);
+            return added;
         } catch (SQLException e) {
             System.out.println("Error adding question to course: " + e.getMessage());
             return false;
@@ -107,24 +249,10 @@ public class CourseManager {
 
     // Get course by ID
     public Course getCourseById(int courseId) {
-        String sql = "SELECT * FROM courses WHERE course_id = ?";
-
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, courseId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return new Course(
-                        rs.getInt("course_id"),
-                        rs.getString("course_name"),
-                        rs.getString("course_code"),
-                        rs.getString("description")
-                );
+        for (Course course : getAllCourses()) {
+            if (course.getCourseId() == courseId) {
+                return course;
             }
-        } catch (SQLException e) {
-            System.out.println("Error loading course: " + e.getMessage());
         }
         return null;
     }
@@ -133,11 +261,16 @@ public class CourseManager {
     public boolean deleteCourse(int courseId) {
         String sql = "DELETE FROM courses WHERE course_id = ?";
 
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, courseId);
-            return pstmt.executeUpdate() > 0;
+            boolean deleted = pstmt.executeUpdate() > 0;
+            cache.invalidateAll();
+            if (deleted) {
+                CourseLeaderboardService.getInstance().removeCourse(courseId);
+            }
+            return deleted;
         } catch (SQLException e) {
             System.out.println("Error deleting course: " + e.getMessage());
             return false;
@@ -146,20 +279,40 @@ public class CourseManager {
 
     // Count questions in course
     public int getQuestionCountByCourse(int courseId) {
-        String sql = "SELECT COUNT(*) FROM questions WHERE course_id = ?";
+        QuestionCounts counts = getQuestionCountsByCourse().get(courseId);
+        return counts == null ? 0 : counts.getTotal();
+    }
 
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    // Question counts (total and per difficulty) for every course from one GROUP BY query, cached
+    public Map<Integer, QuestionCounts> getQuestionCountsByCourse() {
+        try {
+            return cache.get("questionCounts", QuestionBankCache.ALL_COURSES, this::loadQuestionCountsByCourse);
+        } catch (SQLException e) {
+            System.out.println("Error counting questions: " + e.getMessage());
+        }
+        return Collections.emptyMap();
+    }
 
-            pstmt.setInt(1, courseId);
-            ResultSet rs = pstmt.executeQuery();
+    private Map<Integer, QuestionCounts> loadQuestionCountsByCourse() throws SQLException {
+        String sql = "SELECT course_id, difficulty_level, COUNT(*) AS question_count FROM questions " +
+                "WHERE course_id IS NOT NULL GROUP BY course_id, difficulty_level";
+        Map<Integer, Map<String, Integer>> grouped = new HashMap<>();
+
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
 
-            if (rs.next()) {
-                return rs.getInt(1);
+            while (rs.next()) {
+                String difficulty = rs.getString("difficulty_level");
+                grouped.computeIfAbsent(rs.getInt("course_id"), id -> new LinkedHashMap<>())
+                        .merge(difficulty == null ? "Unspecified" : difficulty, rs.getInt("question_count"), Integer::sum);
             }
-        } catch (SQLException e) {
-            System.out.println("Error counting questions: " + e.getMessage());
         }
-        return 0;
+
+        Map<Integer, QuestionCounts> counts = new HashMap<>();
+        for (Map.Entry<Integer, Map<String, Integer>> entry : grouped.entrySet()) {
+            counts.put(entry.getKey(), new QuestionCounts(entry.getKey(), entry.getValue()));
+        }
+        return Collections.unmodifiableMap(counts);
     }
 }
@@ -0,0 +1,54 @@
+package model;
+
+// A student's summary for one course, as kept in course_leaderboard
+public class CourseScore {
+    private final int courseId;
+    private final String username;
+    private final int bestScore;
+    private final int latestScore;
+    private final int attempts;
+    private final long totalScore;
+
+    public CourseScore(int courseId, String username, int bestScore, int latestScore, int attempts, long totalScore) {
+        this.courseId = courseId;
+        this.username = username;
+        this.bestScore = bestScore;
+        this.latestScore = latestScore;
+        this.attempts = attempts;
+        this.totalScore = totalScore;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getLatestScore() {
+        return latestScore;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public double getAverageScore() {
+        return attempts == 0 ? 0 : (double) totalScore / attempts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s best=%d latest=%d avg=%.1f (%d attempts)",
+                username, bestScore, latestScore, getAverageScore(), attempts);
+    }
+}
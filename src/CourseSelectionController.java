@@ -1,3 +1,4 @@
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -7,20 +8,26 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import model.Course;
+import model.CourseScore;
 import model.User;
+import service.AsyncDataService;
+import service.CourseLeaderboardService;
 import service.UserManager;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class CourseSelectionController {
     private Stage primaryStage;
     private UserManager userManager;
     private User student;
+    private AsyncDataService asyncData;
 
     public CourseSelectionController(Stage primaryStage, UserManager userManager, User student) {
         this.primaryStage = primaryStage;
         this.userManager = userManager;
         this.student = student;
+        this.asyncData = new AsyncDataService(userManager);
     }
 
     public void show() {
@@ -48,16 +55,27 @@ public class CourseSelectionController {
         instructionLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         instructionLabel.setStyle("-fx-text-fill: #333;");
 
-        // Load courses and create buttons
-        List<Course> courses = userManager.getAllCourses();
+        // Show a placeholder, then create course buttons once courses arrive off the FX thread
         VBox courseButtons = new VBox(10);
         courseButtons.setAlignment(Pos.CENTER);
 
-        for (Course course : courses) {
-            Button courseBtn = createCourseButton(course);
-            courseBtn.setOnAction(e -> startCourseQuiz(course));
-            courseButtons.getChildren().add(courseBtn);
-        }
+        Label loadingLabel = new Label("⏳ Loading courses...");
+        loadingLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
+        loadingLabel.setStyle("-fx-text-fill: #666;");
+        courseButtons.getChildren().add(loadingLabel);
+
+        asyncData.getAllCourses().thenAcceptAsync(courses -> {
+            courseButtons.getChildren().clear();
+            for (Course course : courses) {
+                Button courseBtn = createCourseButton(course);
+                courseBtn.setOnAction(e -> startCourseQuiz(course));
+                courseButtons.getChildren().add(courseBtn);
+            }
+            // The leaderboard screen opens on the first course
+            if (!courses.isEmpty()) {
+                asyncData.prefetchCourseLeaderboard(courses.get(0).getCourseId(), CourseLeaderboardService.Metric.BEST);
+            }
+        }, Platform::runLater);
 
         courseContainer.getChildren().addAll(instructionLabel, courseButtons);
 
@@ -179,39 +197,103 @@ public class CourseSelectionController {
     }
 
     private void showLeaderboardScreen() {
-        VBox root = new VBox(20);
+        VBox root = new VBox(15);
         root.setPadding(new Insets(30));
         root.setAlignment(Pos.TOP_CENTER);
         root.setStyle("-fx-background-color: linear-gradient(to bottom, #667eea 0%, #764ba2 100%);");
 
-        Label title = new Label("🏆 Leaderboard");
+        Label title = new Label("🏆 Course Leaderboard");
         title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
         title.setStyle("-fx-text-fill: white;");
 
-        // Create leaderboard table (simplified version)
-        ScrollPane scrollPane = new ScrollPane();
-        VBox leaderboardContent = new VBox(10);
+        // Course and ranking selectors
+        ComboBox<Course> courseBox = new ComboBox<>();
+        courseBox.setPromptText("⏳ Loading courses...");
+        courseBox.setPrefWidth(220);
+
+        ComboBox<CourseLeaderboardService.Metric> metricBox = new ComboBox<>();
+        metricBox.getItems().addAll(CourseLeaderboardService.Metric.values());
+        metricBox.setValue(CourseLeaderboardService.Metric.BEST);
+
+        HBox selectors = new HBox(10, courseBox, metricBox);
+        selectors.setAlignment(Pos.CENTER);
+
+        // Create table for the course ranking
+        TableView<CourseRankEntry> table = new TableView<>();
+        table.setPrefHeight(300);
+        table.setPlaceholder(new Label("Select a course to see its rankings"));
+
+        TableColumn<CourseRankEntry, String> rankCol = new TableColumn<>("Rank");
+        rankCol.setPrefWidth(50);
+        rankCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().rank));
+
+        TableColumn<CourseRankEntry, String> nameCol = new TableColumn<>("Username");
+        nameCol.setPrefWidth(140);
+        nameCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().username));
+
+        TableColumn<CourseRankEntry, String> bestCol = new TableColumn<>("Best");
+        bestCol.setPrefWidth(60);
+        bestCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().best));
+
+        TableColumn<CourseRankEntry, String> latestCol = new TableColumn<>("Latest");
+        latestCol.setPrefWidth(60);
+        latestCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().latest));
 
-        // Load leaderboard data and display
-        // This would connect to the database to show current rankings
-        Label comingSoon = new Label("🔄 Leaderboard functionality will be enhanced\nwith course-specific rankings!");
-        comingSoon.setFont(Font.font("Arial", FontWeight.NORMAL, 14));
-        comingSoon.setStyle("-fx-text-fill: #333; -fx-text-alignment: center;");
-        leaderboardContent.getChildren().add(comingSoon);
+        TableColumn<CourseRankEntry, String> averageCol = new TableColumn<>("Average");
+        averageCol.setPrefWidth(70);
+        averageCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().average));
 
-        scrollPane.setContent(leaderboardContent);
-        scrollPane.setPrefHeight(300);
-        scrollPane.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 15;");
+        TableColumn<CourseRankEntry, String> attemptsCol = new TableColumn<>("Attempts");
+        attemptsCol.setPrefWidth(70);
+        attemptsCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().attempts));
+
+        table.getColumns().setAll(List.of(rankCol, nameCol, bestCol, latestCol, averageCol, attemptsCol));
+
+        courseBox.setOnAction(e -> loadCourseLeaderboard(table, courseBox.getValue(), metricBox.getValue()));
+        metricBox.setOnAction(e -> loadCourseLeaderboard(table, courseBox.getValue(), metricBox.getValue()));
+
+        asyncData.getAllCourses().thenAcceptAsync(courses -> {
+            courseBox.getItems().setAll(courses);
+            courseBox.setPromptText("Select course");
+            if (!courses.isEmpty()) {
+                courseBox.setValue(courses.get(0));
+            }
+        }, Platform::runLater);
 
         Button backBtn = createStyledButton("⬅ Back", "#9E9E9E");
         backBtn.setOnAction(e -> returnToStudentDashboard());
 
-        root.getChildren().addAll(title, scrollPane, backBtn);
+        root.getChildren().addAll(title, selectors, table, backBtn);
 
-        Scene scene = new Scene(root, 500, 500);
+        Scene scene = new Scene(root, 550, 500);
         primaryStage.setScene(scene);
     }
 
+    // Reads the top entries kept in memory for the course; no aggregate over past attempts
+    private void loadCourseLeaderboard(TableView<CourseRankEntry> table, Course course, CourseLeaderboardService.Metric metric) {
+        if (course == null || metric == null) {
+            return;
+        }
+        table.getItems().clear();
+        table.setPlaceholder(new Label("⏳ Loading rankings..."));
+        asyncData.getCourseLeaderboard(course.getCourseId(), metric, 50).thenAcceptAsync(scores -> {
+            List<CourseRankEntry> rows = new ArrayList<>(scores.size());
+            int rank = 1;
+            for (CourseScore score : scores) {
+                rows.add(new CourseRankEntry(
+                        String.valueOf(rank++),
+                        score.getUsername(),
+                        String.valueOf(score.getBestScore()),
+                        String.valueOf(score.getLatestScore()),
+                        String.format("%.1f", score.getAverageScore()),
+                        String.valueOf(score.getAttempts())
+                ));
+            }
+            table.getItems().setAll(rows);
+            table.setPlaceholder(new Label("No attempts recorded for " + course.getCourseName() + " yet"));
+        }, Platform::runLater);
+    }
+
     private void showMainScreen() {
         VBox root = new VBox(20);
         root.setPadding(new Insets(50));
@@ -286,4 +368,22 @@ public class CourseSelectionController {
 
         return button;
     }
+
+    public static class CourseRankEntry {
+        public final String rank;
+        public final String username;
+        public final String best;
+        public final String latest;
+        public final String average;
+        public final String attempts;
+
+        public CourseRankEntry(String rank, String username, String best, String latest, String average, String attempts) {
+            this.rank = rank;
+            this.username = username;
+            this.best = best;
+            this.latest = latest;
+            this.average = average;
+            this.attempts = attempts;
+        }
+    }
 }
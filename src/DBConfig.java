@@ -1,7 +1,53 @@
 package model;
 
 public class DBConfig {
-    public static final String URL = "jdbc:mysql://localhost:3306/quizdb";
-    public static final String USER = "root";
-    public static final String PASS = "alu potol"; //Your MySQL password
+    // Overridable with -Dquiz.db.url / .user / .pass, e.g. to point benchmarks at a scratch database
+    public static final String URL = System.getProperty("quiz.db.url", "jdbc:mysql://localhost:3306/quizdb");
+    public static final String USER = System.getProperty("quiz.db.user", "root");
+    public static final String PASS = System.getProperty("quiz.db.pass", "alu potol"); //Your MySQL password
+
+    // Connection pool settings (see service.ConnectionPool)
+    public static final int POOL_MAX_SIZE = 20;
+    public static final int POOL_MIN_IDLE = 2;
+    public static final long POOL_ACQUIRE_TIMEOUT_MS = 5_000;
+    public static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    public static final long POOL_MAX_LIFETIME_MS = 30 * 60_000;
+    public static final long POOL_HOUSEKEEPING_INTERVAL_MS = 30_000;
+    public static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // Prepared statements: kept open per pooled connection by the pool, and prepared server-side
+    // by the MySQL driver with its own cache of parsed statements
+    public static final int POOL_STATEMENT_CACHE_SIZE = 64;
+    public static final int DRIVER_PREP_STMT_CACHE_SIZE = 250;
+    public static final int DRIVER_PREP_STMT_CACHE_SQL_LIMIT = 2048;
+
+    // Write-behind score updates (see service.ScoreWriteBehind)
+    public static final long SCORE_FLUSH_INTERVAL_MS = 500;
+    public static final int SCORE_BATCH_SIZE = 500;
+    public static final int SCORE_MAX_PENDING = 10_000;
+    public static final long SCORE_BACKPRESSURE_TIMEOUT_MS = 2_000;
+
+    // Attempt log writer (see service.AttemptLog)
+    public static final int ATTEMPT_QUEUE_CAPACITY = 50_000;
+    public static final int ATTEMPT_BATCH_SIZE = 200;
+    public static final long ATTEMPT_FLUSH_INTERVAL_MS = 1_000;
+
+    // Serve quiz sampling from the columnar QuestionBank (one compact copy of the whole bank)
+    // instead of per-course Question lists; worthwhile for very large shared banks
+    public static final boolean COLUMNAR_QUESTION_BANK = Boolean.getBoolean("quiz.bank.columnar");
+
+    // Question bank snapshot file (see service.QuestionBankSnapshot); unset to always load from MySQL
+    public static final String QUESTION_BANK_SNAPSHOT = System.getProperty("quiz.bank.snapshot");
+
+    // Rows per batch (and per transaction) in bulk question imports (see service.QuestionImporter)
+    public static final int IMPORT_BATCH_SIZE = 1_000;
+
+    // Per-operation JDBC timing, row and error counts (see service.MetricsRegistry); -Dquiz.metrics.disabled=true to turn off
+    public static final boolean JDBC_METRICS = !Boolean.getBoolean("quiz.metrics.disabled");
+
+    // Students kept per course leaderboard (see service.CourseLeaderboardService)
+    public static final int COURSE_LEADERBOARD_SIZE = 100;
+
+    // How long data loaded ahead of a screen transition stays usable (see service.Prefetcher)
+    public static final long PREFETCH_TTL_MS = 5 * 60_000;
 }
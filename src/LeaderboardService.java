@@ -0,0 +1,228 @@
+package service;
+
+import model.ScoreEntry;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory global leaderboard. UserManager pushes score changes into it, so rank lookups,
+// top-K and paged reads never touch MySQL. A periodic reconciliation reloads users.score
+// to pick up changes made outside this JVM.
+public class LeaderboardService {
+    private static final long RECONCILE_INTERVAL_MINUTES = 5;
+
+    private static volatile LeaderboardService instance;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Integer> scores = new HashMap<>();
+    private RankedIndex index = new RankedIndex();
+    private volatile boolean loaded;
+
+    // Changes applied while a reconciliation is reading the table (null value = removed)
+    private final Map<String, Integer> changedDuringReconcile = new HashMap<>();
+    private boolean reconciling;
+    // Held for a whole reconciliation, so two never overlap and clear each other's changes
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private LeaderboardService() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileIfIdle,
+                RECONCILE_INTERVAL_MINUTES, RECONCILE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public static LeaderboardService getInstance() {
+        LeaderboardService service = instance;
+        if (service == null) {
+            synchronized (LeaderboardService.class) {
+                service = instance;
+                if (service == null) {
+                    service = new LeaderboardService();
+                    instance = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    // Rebuilds the index from the users table, keeping any updates that raced with the load.
+    // Waits for a reconciliation that is already running, then runs its own.
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            rebuild();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // Scheduled runs skip a round while another reconciliation is still going
+    private void reconcileIfIdle() {
+        if (reconcileLock.tryLock()) {
+            try {
+                rebuild();
+            } finally {
+                reconcileLock.unlock();
+            }
+        }
+    }
+
+    // Caller holds reconcileLock
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            reconciling = true;
+            changedDuringReconcile.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Scores still queued for write-behind would otherwise be read back stale; anything
+        // submitted from here on is captured in changedDuringReconcile
+        ScoreWriteBehind.getInstance().flush();
+
+        Map<String, Integer> fresh = new HashMap<>();
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT username, score FROM users")) {
+            while (rs.next()) {
+                fresh.put(rs.getString("username"), rs.getInt("score"));
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Leaderboard reconcile error: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                reconciling = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> change : changedDuringReconcile.entrySet()) {
+                if (change.getValue() == null) {
+                    fresh.remove(change.getKey());
+                } else {
+                    fresh.put(change.getKey(), change.getValue());
+                }
+            }
+            RankedIndex rebuilt = new RankedIndex();
+            for (Map.Entry<String, Integer> row : fresh.entrySet()) {
+                rebuilt.insert(row.getKey(), row.getValue());
+            }
+            scores = fresh;
+            index = rebuilt;
+            reconciling = false;
+            changedDuringReconcile.clear();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcileLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                reconcileLock.unlock();
+            }
+        }
+    }
+
+    public void updateScore(String username, int score) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = scores.put(username, score);
+            if (previous != null) {
+                index.delete(username, previous);
+            }
+            index.insert(username, score);
+            if (reconciling) {
+                changedDuringReconcile.put(username, score);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Newly registered users start with score 0
+    public void addUser(String username) {
+        updateScore(username, 0);
+    }
+
+    public void removeUser(String username) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = scores.remove(username);
+            if (previous != null) {
+                index.delete(username, previous);
+            }
+            if (reconciling) {
+                changedDuringReconcile.put(username, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 1-based rank, or 0 if the user is unknown
+    public int getRank(String username) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer score = scores.get(username);
+            return score == null ? 0 : index.rankOf(username, score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ScoreEntry> getTop(int k) {
+        return getPage(0, k);
+    }
+
+    public List<ScoreEntry> getPage(int offset, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.range(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows ranked after (score, username), for keyset-style paging
+    public List<ScoreEntry> getPageAfter(int score, String username, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.after(score, username, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -3,12 +3,23 @@ import model.Teacher;
 import service.UserManager;
 import service.Quiz;
 import service.CourseBasedQuiz; // Add this missing import
-
+import service.ConsoleInput;
+import service.QuestionBankSnapshot;
+import service.QuestionExporter;
+import service.QuestionImporter;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        QuestionBankSnapshot.installConfigured();
+
+        // Menus read through the shared console reader, which also serves timed quiz answers
+        Scanner scanner = new Scanner(ConsoleInput.shared());
         UserManager userManager = new UserManager();
 
         while (true) {
@@ -229,7 +240,9 @@ public class Main {
             System.out.println("1. View All Questions");
             System.out.println("2. Add New Question");
             System.out.println("3. Delete Question");
-            System.out.println("4. Back to Dashboard");
+            System.out.println("4. Bulk Import Questions");
+            System.out.println("5. Export Questions");
+            System.out.println("6. Back to Dashboard");
             System.out.print("Choose option: ");
             int choice = scanner.nextInt();
             scanner.nextLine(); // consume newline
@@ -245,6 +258,12 @@ public class Main {
                     deleteQuestion(scanner, userManager);
                     break;
                 case 4:
+                    importQuestions(scanner);
+                    break;
+                case 5:
+                    exportQuestions(scanner);
+                    break;
+                case 6:
                     return;
                 default:
                     System.out.println("❌ Invalid option. Please try again.");
@@ -281,6 +300,65 @@ public class Main {
         }
     }
 
+    private static void importQuestions(Scanner scanner) {
+        System.out.println("\n📥 Bulk Import Questions");
+        System.out.print("File path (.csv, .json or .jsonl): ");
+        String path = scanner.nextLine().trim();
+        System.out.print("Default course ID for rows without one (Enter to skip): ");
+        String courseInput = scanner.nextLine().trim();
+
+        Integer defaultCourseId = null;
+        if (!courseInput.isEmpty()) {
+            try {
+                defaultCourseId = Integer.parseInt(courseInput);
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Invalid course ID.");
+                return;
+            }
+        }
+
+        try {
+            QuestionImporter.ImportResult result = new QuestionImporter().importFile(Paths.get(path), defaultCourseId,
+                    progress -> System.out.printf("⏳ %d imported, %d rejected of %d read%n",
+                            progress.getImported(), progress.getRejected(), progress.getRecordsRead()));
+            System.out.println("✅ " + result);
+            result.getErrors().stream().limit(20).forEach(error -> System.out.println("   ⚠️ " + error));
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("❌ Import failed: " + e.getMessage());
+        }
+    }
+
+    private static void exportQuestions(Scanner scanner) {
+        System.out.println("\n📤 Export Questions");
+        System.out.print("File path (.csv, .jsonl or .qbx): ");
+        String path = scanner.nextLine().trim();
+        System.out.print("Course ID to export (Enter for all courses): ");
+        String courseInput = scanner.nextLine().trim();
+
+        Integer courseId = null;
+        if (!courseInput.isEmpty()) {
+            try {
+                courseId = Integer.parseInt(courseInput);
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Invalid course ID.");
+                return;
+            }
+        }
+
+        try {
+            Path file = Paths.get(path);
+            QuestionExporter.Format format = QuestionExporter.Format.forFile(file);
+            if (format == null) {
+                System.out.println("❌ Unsupported file type. Use .csv, .jsonl or .qbx");
+                return;
+            }
+            QuestionExporter.ExportResult result = new QuestionExporter().exportFile(file, format, courseId);
+            System.out.println("✅ Exported " + result);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("❌ Export failed: " + e.getMessage());
+        }
+    }
+
     private static void deleteQuestion(Scanner scanner, UserManager userManager) {
         System.out.println("\n🗑️ Delete Question");
         userManager.showAllQuestions();
@@ -0,0 +1,250 @@
+package service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Process-wide metrics for data access, keyed by operation name (e.g. "UserManager.login").
+// ConnectionPool records one operation per borrowed connection: the time from getConnection() to
+// close(), rows read through its result sets and SQLExceptions thrown by any of its JDBC objects.
+// Connection acquisition is recorded as "ConnectionPool.acquire".
+// Every operation is also an MXBean (quiz:type=Operation,name="...") and scrape() renders all of
+// them, plus registered gauges, in the Prometheus text format for the server's /metrics endpoint.
+public class MetricsRegistry {
+    private static final String JMX_DOMAIN = "quiz";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry(true);
+
+    private final boolean registerMBeans;
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Supplier<Number>> gauges = new ConcurrentHashMap<>();
+
+    public MetricsRegistry(boolean registerMBeans) {
+        this.registerMBeans = registerMBeans;
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    // Metrics of the named operation, created (and registered with JMX) on first use
+    public OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+        return operations.computeIfAbsent(name, key -> {
+            OperationMetrics created = new OperationMetrics(key);
+            if (registerMBeans) {
+                register(created);
+            }
+            return created;
+        });
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Operation,name=" + ObjectName.quote(metrics.getName()));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            System.out.println("❌ Could not register metrics for " + metrics.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // Value read at scrape time, e.g. pool size; name is the metric name without the quiz_ prefix
+    public void registerGauge(String name, Supplier<Number> value) {
+        gauges.put(name, value);
+    }
+
+    // All operations, sorted by name
+    public List<OperationMetrics> getOperations() {
+        List<OperationMetrics> list = new ArrayList<>(operations.values());
+        list.sort(Comparator.comparing(OperationMetrics::getName));
+        return list;
+    }
+
+    // Name of the code borrowing a connection: the first frame outside the pool, JDK and proxies,
+    // as SimpleClassName.method (lambda bodies are reported under their enclosing method)
+    public static String callerName() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !isInfrastructure(frame.getClassName()))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + methodName(frame.getMethodName()))
+                .orElse("unknown"));
+    }
+
+    private static boolean isInfrastructure(String className) {
+        return className.startsWith("service.ConnectionPool") || className.startsWith("service.MetricsRegistry")
+                || className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("jdk.")
+                || className.startsWith("sun.") || className.startsWith("com.sun.");
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested < 0 ? name : name.substring(0, nested);
+    }
+
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end < 0 ? method.substring(7) : method.substring(7, end);
+        }
+        return method;
+    }
+
+    // Prometheus text exposition format (version 0.0.4)
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        List<OperationMetrics> list = getOperations();
+        List<LatencyHistogram.Snapshot> snapshots = new ArrayList<>(list.size());
+        for (OperationMetrics metrics : list) {
+            snapshots.add(metrics.snapshot());
+        }
+
+        sb.append("# HELP quiz_operation_seconds Data-access operation latency.\n");
+        sb.append("# TYPE quiz_operation_seconds summary\n");
+        for (int i = 0; i < list.size(); i++) {
+            String label = "operation=\"" + escape(list.get(i).getName()) + "\"";
+            LatencyHistogram.Snapshot snapshot = snapshots.get(i);
+            for (double quantile : QUANTILES) {
+                sb.append("quiz_operation_seconds{").append(label).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(snapshot.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            sb.append("quiz_operation_seconds_sum{").append(label).append("} ")
+                    .append(seconds(snapshot.getSumNanos())).append('\n');
+            sb.append("quiz_operation_seconds_count{").append(label).append("} ")
+                    .append(snapshot.getCount()).append('\n');
+        }
+
+        sb.append("# HELP quiz_operation_max_seconds Slowest call of each operation.\n");
+        sb.append("# TYPE quiz_operation_max_seconds gauge\n");
+        for (int i = 0; i < list.size(); i++) {
+            sb.append("quiz_operation_max_seconds{operation=\"").append(escape(list.get(i).getName())).append("\"} ")
+                    .append(seconds(snapshots.get(i).getMaxNanos())).append('\n');
+        }
+
+        sb.append("# HELP quiz_operation_errors_total SQLExceptions thrown during each operation.\n");
+        sb.append("# TYPE quiz_operation_errors_total counter\n");
+        for (OperationMetrics metrics : list) {
+            sb.append("quiz_operation_errors_total{operation=\"").append(escape(metrics.getName())).append("\"} ")
+                    .append(metrics.getErrors()).append('\n');
+        }
+
+        sb.append("# HELP quiz_operation_rows_total Result set rows read by each operation.\n");
+        sb.append("# TYPE quiz_operation_rows_total counter\n");
+        for (OperationMetrics metrics : list) {
+            sb.append("quiz_operation_rows_total{operation=\"").append(escape(metrics.getName())).append("\"} ")
+                    .append(metrics.getRowsRead()).append('\n');
+        }
+
+        for (Map.Entry<String, Supplier<Number>> gauge : new TreeMap<>(gauges).entrySet()) {
+            sb.append("# TYPE quiz_").append(gauge.getKey()).append(" gauge\n");
+            sb.append("quiz_").append(gauge.getKey()).append(' ').append(gauge.getValue().get()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.valueOf(nanos / 1e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public static class OperationMetrics implements OperationMetricsMXBean {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rowsRead = new LongAdder();
+
+        private OperationMetrics(String name) {
+            this.name = name;
+        }
+
+        public void record(long nanos) {
+            latency.record(nanos);
+        }
+
+        public void recordError() {
+            errors.increment();
+        }
+
+        public void addRows(long rows) {
+            rowsRead.add(rows);
+        }
+
+        public LatencyHistogram.Snapshot snapshot() {
+            return latency.snapshot();
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getRowsRead() {
+            return rowsRead.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return snapshot().getMeanNanos() / 1_000_000.0;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return snapshot().getMillisAtPercentile(50);
+        }
+
+        @Override
+        public double getP90Millis() {
+            return snapshot().getMillisAtPercentile(90);
+        }
+
+        @Override
+        public double getP99Millis() {
+            return snapshot().getMillisAtPercentile(99);
+        }
+
+        @Override
+        public double getP999Millis() {
+            return snapshot().getMillisAtPercentile(99.9);
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return snapshot().getMaxNanos() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            LatencyHistogram.Snapshot snapshot = snapshot();
+            return String.format("%s: count=%d, errors=%d, rows=%d, p50=%.3f ms, p99=%.3f ms, max=%.3f ms",
+                    name, snapshot.getCount(), getErrors(), getRowsRead(), snapshot.getMillisAtPercentile(50),
+                    snapshot.getMillisAtPercentile(99), snapshot.getMaxNanos() / 1_000_000.0);
+        }
+    }
+}
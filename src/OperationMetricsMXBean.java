@@ -0,0 +1,25 @@
+package service;
+
+// JMX view of one named data-access operation (see MetricsRegistry), registered as
+// quiz:type=Operation,name="<operation>"
+public interface OperationMetricsMXBean {
+    String getName();
+
+    long getCount();
+
+    long getErrors();
+
+    long getRowsRead();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+}
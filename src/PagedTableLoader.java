@@ -0,0 +1,110 @@
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Fills a TableView or ListView one page at a time, fetching the next page when the user scrolls near
+// the bottom. Only the rows actually scrolled to are ever loaded into memory, and the virtualized
+// control only creates nodes for the rows on screen.
+public class PagedTableLoader<T> {
+    public static final int PAGE_SIZE = 100;
+
+    // Loads up to limit rows that come after the given row (null for the first page) off the FX thread;
+    // pages are appended on the FX thread when they arrive
+    @FunctionalInterface
+    public interface AsyncPageSource<T> {
+        CompletableFuture<List<T>> fetch(T lastLoaded, int limit);
+    }
+
+    private final Control control;
+    private final ObservableList<T> items;
+    private final AsyncPageSource<T> source;
+    private boolean exhausted;
+    private boolean loading;
+
+    private PagedTableLoader(Control control, ObservableList<T> items, AsyncPageSource<T> source) {
+        this.control = control;
+        this.items = items;
+        this.source = source;
+    }
+
+    public static <T> PagedTableLoader<T> attach(TableView<T> table, AsyncPageSource<T> source) {
+        return attach(table, table.getItems(), source);
+    }
+
+    public static <T> PagedTableLoader<T> attach(ListView<T> list, AsyncPageSource<T> source) {
+        return attach(list, list.getItems(), source);
+    }
+
+    private static <T> PagedTableLoader<T> attach(Control control, ObservableList<T> items, AsyncPageSource<T> source) {
+        PagedTableLoader<T> loader = new PagedTableLoader<>(control, items, source);
+        loader.loadNextPage();
+
+        // The scroll bar only exists once the control's skin is created
+        control.skinProperty().addListener((obs, oldSkin, newSkin) -> loader.hookScrollBar());
+        if (control.getSkin() != null) {
+            loader.hookScrollBar();
+        }
+        return loader;
+    }
+
+    private void hookScrollBar() {
+        for (Node node : control.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar bar = (ScrollBar) node;
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= bar.getMax() * 0.9) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public void loadNextPage() {
+        if (exhausted || loading) {
+            return;
+        }
+        loading = true;
+        T last = items.isEmpty() ? null : items.get(items.size() - 1);
+        CompletableFuture<List<T>> page;
+        try {
+            page = source.fetch(last, PAGE_SIZE);
+        } catch (RuntimeException e) {
+            loading = false;
+            throw e;
+        }
+        if (page.isDone() && !page.isCompletedExceptionally()) {
+            append(page.join()); // pages already at hand (e.g. cached) fill the control right away
+            return;
+        }
+        page.whenCompleteAsync((rows, error) -> {
+            if (error != null) {
+                loading = false;
+                System.out.println("❌ Error loading page: " + error.getMessage());
+                return;
+            }
+            append(rows);
+        }, Platform::runLater);
+    }
+
+    private void append(List<T> page) {
+        try {
+            items.addAll(page);
+            exhausted = page.size() < PAGE_SIZE;
+        } finally {
+            loading = false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package service;
+
+import model.DBConfig;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Loads data for the screen the user is likely to open next while they are busy on the current one
+// (e.g. the course list and the next quiz while a quiz is being answered).
+// Each prefetched value is handed out once by take(); later reads load fresh data as usual, so a
+// prefetch never makes a screen show older data than it would otherwise. Entries expire after
+// DBConfig.PREFETCH_TTL_MS and are dropped as soon as the course's questions or quiz settings change
+// (UserManager.updateQuizConfig bumps the course's QuestionBankCache version like a question edit does).
+public class Prefetcher {
+    private static final Prefetcher INSTANCE = new Prefetcher(DBConfig.PREFETCH_TTL_MS);
+
+    static {
+        INSTANCE.registerGauges(MetricsRegistry.getInstance());
+    }
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final QuestionBankCache cache = QuestionBankCache.getInstance();
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Prefetcher(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static Prefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    private void registerGauges(MetricsRegistry registry) {
+        registry.registerGauge("prefetch_started", started::get);
+        registry.registerGauge("prefetch_hits", hits::get);
+        registry.registerGauge("prefetch_misses", misses::get);
+    }
+
+    // Starts loading key in the background unless a usable load is already cached or in flight.
+    // courseId (or QuestionBankCache.ALL_COURSES) scopes the question bank version the value depends on.
+    public <T> void prefetch(String key, int courseId, Supplier<CompletableFuture<T>> loader) {
+        entries.values().removeIf(entry -> !isUsable(entry));
+        Entry existing = entries.get(key);
+        if (existing != null && isUsable(existing)) {
+            return;
+        }
+
+        long version = cache.getVersion(courseId);
+        CompletableFuture<T> future;
+        try {
+            future = loader.get();
+        } catch (RuntimeException e) {
+            System.out.println("❌ Prefetch of " + key + " failed: " + e.getMessage());
+            return;
+        }
+        Entry entry = new Entry(future, courseId, version, System.currentTimeMillis());
+        entries.put(key, entry);
+        started.incrementAndGet();
+
+        // A failed prefetch is forgotten; the screen loads (and reports the error) itself
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                entries.remove(key, entry);
+            }
+        });
+    }
+
+    // The prefetched load of key if there is a usable one (possibly still running), else a new load
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> take(String key, Supplier<CompletableFuture<T>> loader) {
+        Entry entry = entries.remove(key);
+        if (entry != null && isUsable(entry)) {
+            hits.incrementAndGet();
+            return (CompletableFuture<T>) entry.future;
+        }
+        misses.incrementAndGet();
+        return loader.get();
+    }
+
+    private boolean isUsable(Entry entry) {
+        return !entry.future.isCompletedExceptionally()
+                && System.currentTimeMillis() - entry.createdAt <= ttlMillis
+                && cache.getVersion(entry.courseId) == entry.version;
+    }
+
+    public long getStartedCount() {
+        return started.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<?> future;
+        private final int courseId;
+        private final long version;
+        private final long createdAt;
+
+        private Entry(CompletableFuture<?> future, int courseId, long version, long createdAt) {
+            this.future = future;
+            this.courseId = courseId;
+            this.version = version;
+            this.createdAt = createdAt;
+        }
+    }
+}
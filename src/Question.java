@@ -1,14 +1,25 @@
 package model;
 
-public class Question {
-    private String text;
-    private String[] options;
-    private int correctIndex;
+// Immutable so a single loaded instance can be shared by every quiz attempt
+public final class Question {
+    private final int questionId;
+    private final String text;
+    private final String[] options;
+    private final int correctIndex;
+    private final int courseId;
+    private final String difficultyLevel;
 
     public Question(String text, String[] options, int correctIndex) {
+        this(0, text, options, correctIndex, 0, null);
+    }
+
+    public Question(int questionId, String text, String[] options, int correctIndex, int courseId, String difficultyLevel) {
+        this.questionId = questionId;
         this.text = text;
-        this.options = options;
+        this.options = options.clone();
         this.correctIndex = correctIndex;
+        this.courseId = courseId;
+        this.difficultyLevel = difficultyLevel;
     }
 
     public void display() {
@@ -21,4 +32,29 @@ public class Question {
     public boolean checkAnswer(int answer) {
         return answer == correctIndex;
     }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String[] getOptions() {
+        return options.clone();
+    }
+
+    // 1-based index of the correct option
+    public int getCorrectIndex() {
+        return correctIndex;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getDifficultyLevel() {
+        return difficultyLevel;
+    }
 }
@@ -0,0 +1,487 @@
+package model;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Columnar, read-only question bank for large shared banks.
+// Instead of one Question (plus a String[] and four option Strings) per row, the scalar fields live
+// in parallel primitive arrays and all text in one UTF-8 byte pool where identical strings, such as
+// recurring options, are stored once. Rows are ordered by (course, id), so a course is a contiguous
+// row range. Text is decoded only when read, through the row accessors or a Cursor.
+public final class QuestionBank {
+    private final int size;
+    private final int[] ids;
+    private final int[] courseIds;
+    private final byte[] difficulties;   // index into difficultyLevels, -1 when not set
+    private final byte[] correctIndexes; // 1-based, like Question
+    private final int[] textRefs;        // string ids in the pool, -1 for null
+    private final int[] optionStarts;    // options of row r are optionRefs[optionStarts[r] .. optionStarts[r + 1])
+    private final int[] optionRefs;
+    private final String[] difficultyLevels;
+    private final byte[] pool;
+    private final int[] stringOffsets;   // string s is pool[stringOffsets[s] .. stringOffsets[s + 1])
+    private final int[] courseKeys;      // distinct course ids, ascending
+    private final int[] courseStarts;    // rows of courseKeys[c] are [courseStarts[c], courseStarts[c + 1])
+
+    private QuestionBank(int[] ids, int[] courseIds, byte[] difficulties, byte[] correctIndexes, int[] textRefs,
+                         int[] optionStarts, int[] optionRefs, String[] difficultyLevels, byte[] pool,
+                         int[] stringOffsets, int[] courseKeys, int[] courseStarts) {
+        this.size = ids.length;
+        this.ids = ids;
+        this.courseIds = courseIds;
+        this.difficulties = difficulties;
+        this.correctIndexes = correctIndexes;
+        this.textRefs = textRefs;
+        this.optionStarts = optionStarts;
+        this.optionRefs = optionRefs;
+        this.difficultyLevels = difficultyLevels;
+        this.pool = pool;
+        this.stringOffsets = stringOffsets;
+        this.courseKeys = courseKeys;
+        this.courseStarts = courseStarts;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Highest question id in the bank, or 0 when empty
+    public int getMaxQuestionId() {
+        int max = 0;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+
+    // Row accessors
+
+    public int getQuestionId(int row) {
+        return ids[Objects.checkIndex(row, size)];
+    }
+
+    public int getCourseId(int row) {
+        return courseIds[Objects.checkIndex(row, size)];
+    }
+
+    public String getDifficultyLevel(int row) {
+        byte level = difficulties[Objects.checkIndex(row, size)];
+        return level < 0 ? null : difficultyLevels[level];
+    }
+
+    public int getCorrectIndex(int row) {
+        return correctIndexes[Objects.checkIndex(row, size)];
+    }
+
+    public boolean checkAnswer(int row, int answer) {
+        return answer == getCorrectIndex(row);
+    }
+
+    public String getText(int row) {
+        return string(textRefs[Objects.checkIndex(row, size)]);
+    }
+
+    public int getOptionCount(int row) {
+        Objects.checkIndex(row, size);
+        return optionStarts[row + 1] - optionStarts[row];
+    }
+
+    public String getOption(int row, int option) {
+        Objects.checkIndex(option, getOptionCount(row));
+        return string(optionRefs[optionStarts[row] + option]);
+    }
+
+    // Materialises one row as a regular Question
+    public Question toQuestion(int row) {
+        String[] options = new String[getOptionCount(row)];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = getOption(row, i);
+        }
+        return new Question(ids[row], getText(row), options, correctIndexes[row], courseIds[row], getDifficultyLevel(row));
+    }
+
+    private String string(int ref) {
+        if (ref < 0) {
+            return null;
+        }
+        int start = stringOffsets[ref];
+        return new String(pool, start, stringOffsets[ref + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    // Courses
+
+    // First row of the course, or -1 if it has no questions
+    public int courseStart(int courseId) {
+        int c = Arrays.binarySearch(courseKeys, courseId);
+        return c < 0 ? -1 : courseStarts[c];
+    }
+
+    // Number of questions in the course
+    public int courseSize(int courseId) {
+        int c = Arrays.binarySearch(courseKeys, courseId);
+        return c < 0 ? 0 : courseStarts[c + 1] - courseStarts[c];
+    }
+
+    // Row of a question within its course, or -1 (rows of a course are ordered by id)
+    public int indexOf(int courseId, int questionId) {
+        int c = Arrays.binarySearch(courseKeys, courseId);
+        if (c < 0) {
+            return -1;
+        }
+        int row = Arrays.binarySearch(ids, courseStarts[c], courseStarts[c + 1], questionId);
+        return row < 0 ? -1 : row;
+    }
+
+    // Questions for the given rows, each materialised only when read (e.g. a sampled quiz)
+    public List<Question> questions(int[] rows) {
+        int[] copy = rows.clone();
+        for (int row : copy) {
+            Objects.checkIndex(row, size);
+        }
+        return new AbstractList<Question>() {
+            @Override
+            public Question get(int index) {
+                return toQuestion(copy[index]);
+            }
+
+            @Override
+            public int size() {
+                return copy.length;
+            }
+        };
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Distinct strings stored in the pool, and the pool size in bytes
+    public int getStringCount() {
+        return stringOffsets.length - 1;
+    }
+
+    public int getPoolBytes() {
+        return pool.length;
+    }
+
+    // Binary form used by snapshot files: every array as a length-prefixed, big-endian section
+    public void writeTo(DataOutputStream out) throws IOException {
+        writeInts(out, ids);
+        writeInts(out, courseIds);
+        writeBytes(out, difficulties);
+        writeBytes(out, correctIndexes);
+        writeInts(out, textRefs);
+        writeInts(out, optionStarts);
+        writeInts(out, optionRefs);
+        out.writeInt(difficultyLevels.length);
+        for (String level : difficultyLevels) {
+            writeBytes(out, level.getBytes(StandardCharsets.UTF_8));
+        }
+        writeBytes(out, pool);
+        writeInts(out, stringOffsets);
+        writeInts(out, courseKeys);
+        writeInts(out, courseStarts);
+    }
+
+    // Reads what writeTo wrote, starting at the buffer's position (which is advanced past it).
+    // Sections are bulk-copied, so reading from a loaded file buffer costs little more than a memcpy.
+    public static QuestionBank readFrom(ByteBuffer in) {
+        int[] ids = readInts(in);
+        int[] courseIds = readInts(in);
+        byte[] difficulties = readBytes(in);
+        byte[] correctIndexes = readBytes(in);
+        int[] textRefs = readInts(in);
+        int[] optionStarts = readInts(in);
+        int[] optionRefs = readInts(in);
+        String[] difficultyLevels = new String[in.getInt()];
+        for (int i = 0; i < difficultyLevels.length; i++) {
+            difficultyLevels[i] = new String(readBytes(in), StandardCharsets.UTF_8);
+        }
+        byte[] pool = readBytes(in);
+        int[] stringOffsets = readInts(in);
+        int[] courseKeys = readInts(in);
+        int[] courseStarts = readInts(in);
+
+        int size = ids.length;
+        if (courseIds.length != size || difficulties.length != size || correctIndexes.length != size
+                || textRefs.length != size || optionStarts.length != size + 1
+                || courseStarts.length != courseKeys.length + 1) {
+            throw new IllegalArgumentException("Corrupt question bank data");
+        }
+        return new QuestionBank(ids, courseIds, difficulties, correctIndexes, textRefs, optionStarts, optionRefs,
+                difficultyLevels, pool, stringOffsets, courseKeys, courseStarts);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] values) throws IOException {
+        out.writeInt(values.length);
+        out.write(values);
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] values = new byte[in.getInt()];
+        in.get(values);
+        return values;
+    }
+
+    // Flyweight view of one row: move it over the bank instead of creating a Question per row.
+    // Not thread-safe; use one cursor per thread.
+    public final class Cursor {
+        private int row = -1;
+
+        private Cursor() {
+        }
+
+        public Cursor moveTo(int row) {
+            this.row = Objects.checkIndex(row, size);
+            return this;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getQuestionId() {
+            return QuestionBank.this.getQuestionId(row);
+        }
+
+        public int getCourseId() {
+            return QuestionBank.this.getCourseId(row);
+        }
+
+        public String getDifficultyLevel() {
+            return QuestionBank.this.getDifficultyLevel(row);
+        }
+
+        public int getCorrectIndex() {
+            return QuestionBank.this.getCorrectIndex(row);
+        }
+
+        public boolean checkAnswer(int answer) {
+            return QuestionBank.this.checkAnswer(row, answer);
+        }
+
+        public String getText() {
+            return QuestionBank.this.getText(row);
+        }
+
+        public int getOptionCount() {
+            return QuestionBank.this.getOptionCount(row);
+        }
+
+        public String getOption(int option) {
+            return QuestionBank.this.getOption(row, option);
+        }
+
+        public Question toQuestion() {
+            return QuestionBank.this.toQuestion(row);
+        }
+    }
+
+    // Accepts rows in (course id, question id) order, e.g. straight from "... ORDER BY course_id, id".
+    // Only the row being added exists as objects: strings are deduplicated through an open-addressing
+    // table of pool references keyed by the hash of their UTF-8 bytes, not a map holding every String.
+    public static final class Builder {
+        private int size;
+        private int[] ids = new int[1024];
+        private int[] courseIds = new int[1024];
+        private byte[] difficulties = new byte[1024];
+        private byte[] correctIndexes = new byte[1024];
+        private int[] textRefs = new int[1024];
+        private int[] optionStarts = new int[1025];
+        private int[] optionRefs = new int[4096];
+        private int optionCount;
+
+        private final Map<String, Integer> difficultyLevels = new HashMap<>();
+        private byte[] pool = new byte[64 * 1024];
+        private int poolSize;
+        private int stringCount;
+        private int[] stringOffsets = new int[1025];
+        // Build-time dedup index, dropped with the builder: slots hold string id + 1 (0 = empty),
+        // stringHashes the hash of each string's bytes so the table can grow without rehashing them
+        private int[] stringTable = new int[2048];
+        private int[] stringHashes = new int[1024];
+
+        private int[] courseKeys = new int[64];
+        private int[] courseStarts = new int[65];
+        private int courseCount;
+
+        // Copies one row of another bank, e.g. when merging a snapshot with newer rows
+        public Builder add(QuestionBank bank, int row) {
+            String[] options = new String[bank.getOptionCount(row)];
+            for (int i = 0; i < options.length; i++) {
+                options[i] = bank.getOption(row, i);
+            }
+            return add(bank.getQuestionId(row), bank.getCourseId(row), bank.getDifficultyLevel(row),
+                    bank.getText(row), options, bank.getCorrectIndex(row));
+        }
+
+        public Builder add(Question question) {
+            return add(question.getQuestionId(), question.getCourseId(), question.getDifficultyLevel(),
+                    question.getText(), question.getOptions(), question.getCorrectIndex());
+        }
+
+        public Builder add(int id, int courseId, String difficultyLevel, String text, String[] options, int correctIndex) {
+            if (size > 0) {
+                int lastCourse = courseIds[size - 1];
+                if (courseId < lastCourse || (courseId == lastCourse && id <= ids[size - 1])) {
+                    throw new IllegalArgumentException("Questions must be added in (course id, id) order; got "
+                            + courseId + "/" + id + " after " + lastCourse + "/" + ids[size - 1]);
+                }
+            }
+            if (correctIndex < Byte.MIN_VALUE || correctIndex > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Correct index out of range: " + correctIndex);
+            }
+            ensureRowCapacity();
+
+            if (courseCount == 0 || courseKeys[courseCount - 1] != courseId) {
+                if (courseCount == courseKeys.length) {
+                    courseKeys = Arrays.copyOf(courseKeys, courseCount * 2);
+                    courseStarts = Arrays.copyOf(courseStarts, courseCount * 2 + 1);
+                }
+                courseKeys[courseCount] = courseId;
+                courseStarts[courseCount++] = size;
+            }
+
+            ids[size] = id;
+            courseIds[size] = courseId;
+            difficulties[size] = difficulty(difficultyLevel);
+            correctIndexes[size] = (byte) correctIndex;
+            textRefs[size] = intern(text);
+            optionStarts[size] = optionCount;
+            if (optionRefs.length - optionCount < options.length) {
+                optionRefs = Arrays.copyOf(optionRefs, Math.max(optionRefs.length * 2, optionCount + options.length));
+            }
+            for (String option : options) {
+                optionRefs[optionCount++] = intern(option);
+            }
+            size++;
+            optionStarts[size] = optionCount;
+            return this;
+        }
+
+        private void ensureRowCapacity() {
+            if (size < ids.length) {
+                return;
+            }
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            courseIds = Arrays.copyOf(courseIds, capacity);
+            difficulties = Arrays.copyOf(difficulties, capacity);
+            correctIndexes = Arrays.copyOf(correctIndexes, capacity);
+            textRefs = Arrays.copyOf(textRefs, capacity);
+            optionStarts = Arrays.copyOf(optionStarts, capacity + 1);
+        }
+
+        private byte difficulty(String level) {
+            if (level == null) {
+                return -1;
+            }
+            Integer index = difficultyLevels.get(level);
+            if (index == null) {
+                if (difficultyLevels.size() > Byte.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many distinct difficulty levels");
+                }
+                index = difficultyLevels.size();
+                difficultyLevels.put(level, index);
+            }
+            return index.byteValue();
+        }
+
+        private int intern(String value) {
+            if (value == null) {
+                return -1;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int hash = hash(bytes);
+            int mask = stringTable.length - 1;
+            int slot = hash & mask;
+            for (int entry; (entry = stringTable[slot]) != 0; slot = (slot + 1) & mask) {
+                int ref = entry - 1;
+                if (stringHashes[ref] == hash && Arrays.equals(pool, stringOffsets[ref], stringOffsets[ref + 1],
+                        bytes, 0, bytes.length)) {
+                    return ref;
+                }
+            }
+
+            if (bytes.length > Integer.MAX_VALUE - 8 - poolSize) {
+                throw new IllegalStateException("Question bank text exceeds 2 GB");
+            }
+            if (pool.length - poolSize < bytes.length) {
+                long grown = Math.max(2L * pool.length, (long) poolSize + bytes.length);
+                pool = Arrays.copyOf(pool, (int) Math.min(grown, Integer.MAX_VALUE - 8));
+            }
+            System.arraycopy(bytes, 0, pool, poolSize, bytes.length);
+            poolSize += bytes.length;
+
+            int ref = stringCount++;
+            if (ref + 2 > stringOffsets.length) {
+                stringOffsets = Arrays.copyOf(stringOffsets, stringOffsets.length * 2);
+            }
+            stringOffsets[ref + 1] = poolSize;
+            if (ref == stringHashes.length) {
+                stringHashes = Arrays.copyOf(stringHashes, ref * 2);
+            }
+            stringHashes[ref] = hash;
+            stringTable[slot] = ref + 1;
+            if (stringCount * 2 > stringTable.length) {
+                growStringTable();
+            }
+            return ref;
+        }
+
+        // Kept at most half full so probe runs stay short
+        private void growStringTable() {
+            int[] table = new int[stringTable.length * 2];
+            int mask = table.length - 1;
+            for (int ref = 0; ref < stringCount; ref++) {
+                int slot = stringHashes[ref] & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = ref + 1;
+            }
+            stringTable = table;
+        }
+
+        private static int hash(byte[] bytes) {
+            int h = Arrays.hashCode(bytes);
+            return h ^ (h >>> 16); // spread high bits into the low bits the mask keeps
+        }
+
+        public QuestionBank build() {
+            String[] levels = new String[difficultyLevels.size()];
+            for (Map.Entry<String, Integer> level : difficultyLevels.entrySet()) {
+                levels[level.getValue()] = level.getKey();
+            }
+            int[] starts = Arrays.copyOf(courseStarts, courseCount + 1);
+            starts[courseCount] = size;
+            return new QuestionBank(Arrays.copyOf(ids, size), Arrays.copyOf(courseIds, size),
+                    Arrays.copyOf(difficulties, size), Arrays.copyOf(correctIndexes, size),
+                    Arrays.copyOf(textRefs, size), Arrays.copyOf(optionStarts, size + 1),
+                    Arrays.copyOf(optionRefs, optionCount), levels, Arrays.copyOf(pool, poolSize),
+                    Arrays.copyOf(stringOffsets, stringCount + 1), Arrays.copyOf(courseKeys, courseCount), starts);
+        }
+    }
+}
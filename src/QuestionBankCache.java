@@ -0,0 +1,132 @@
+package service;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-mostly, per-course cache of question bank data.
+// Entries are immutable snapshots tagged with the version they were loaded at; teacher
+// mutations bump the version so the next read reloads instead of serving stale data.
+public class QuestionBankCache {
+    // Pseudo course id for data that spans the whole questions table
+    public static final int ALL_COURSES = -1;
+
+    private static final QuestionBankCache INSTANCE = new QuestionBankCache();
+
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<Integer, AtomicLong> courseVersions = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public static QuestionBankCache getInstance() {
+        return INSTANCE;
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    // Returns the cached value for (kind, courseId), loading it once per version on a miss.
+    // Loaded values must be immutable; they are shared across every caller.
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, int courseId, Loader<T> loader) throws SQLException {
+        String key = kind + ":" + courseId;
+        Entry entry = entries.get(key);
+        if (entry != null && isCurrent(entry, courseId)) {
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+
+        // One loader per key, so a class starting the same quiz at once triggers a single query
+        synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+            entry = entries.get(key);
+            if (entry != null && isCurrent(entry, courseId)) {
+                hits.incrementAndGet();
+                return (T) entry.value;
+            }
+            misses.incrementAndGet();
+
+            // Read versions before loading: a mutation during the load leaves this entry stale
+            long global = globalVersion.get();
+            long course = courseVersion(courseId).get();
+            T value = loader.load();
+            entries.put(key, new Entry(value, global, course));
+            return value;
+        }
+    }
+
+    // Seeds a value loaded elsewhere, e.g. from a snapshot file. version is getVersion(courseId) as read
+    // before the value was loaded; if the data changed since, nothing is stored and false is returned.
+    public boolean put(String kind, int courseId, Object value, long version) {
+        String key = kind + ":" + courseId;
+        synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+            long global = globalVersion.get();
+            long course = courseVersion(courseId).get();
+            if (global + course != version) {
+                return false;
+            }
+            entries.put(key, new Entry(value, global, course));
+            return true;
+        }
+    }
+
+    // Returns the cached value only if it is present and current; never loads
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(String kind, int courseId) {
+        Entry entry = entries.get(kind + ":" + courseId);
+        if (entry != null && isCurrent(entry, courseId)) {
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+        return null;
+    }
+
+    private boolean isCurrent(Entry entry, int courseId) {
+        return entry.globalVersion == globalVersion.get()
+                && entry.courseVersion == courseVersion(courseId).get();
+    }
+
+    private AtomicLong courseVersion(int courseId) {
+        return courseVersions.computeIfAbsent(courseId, id -> new AtomicLong());
+    }
+
+    // A question was added to or removed from this course, or its quiz settings changed
+    public void invalidateCourse(int courseId) {
+        courseVersion(courseId).incrementAndGet();
+        courseVersion(ALL_COURSES).incrementAndGet();
+    }
+
+    // A change whose course is unknown (or affects courses themselves)
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+    }
+
+    public long getVersion(int courseId) {
+        return globalVersion.get() + courseVersion(courseId).get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long globalVersion;
+        private final long courseVersion;
+
+        private Entry(Object value, long globalVersion, long courseVersion) {
+            this.value = value;
+            this.globalVersion = globalVersion;
+            this.courseVersion = courseVersion;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package service;
+
+import model.Course;
+import model.DBConfig;
+import model.QuestionBank;
+import model.QuizConfig;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.*;
+
+// Versioned binary snapshot of the question bank: courses, quiz configs and every question.
+// export() writes it to a file; load() reads the file with one positional FileChannel read and
+// bulk-copies it into a QuestionBank, so a client can start quizzes in milliseconds without waiting
+// on MySQL. Nothing stays mapped or open afterwards, so the next export can replace the file.
+// refresh() then catches up with only the delta: rows with an id above the snapshot's highest id,
+// plus the current id list to drop deleted questions. Questions are only ever added or deleted,
+// never edited in place, so the id-based delta is exact. Courses and configs are small and reloaded whole.
+public final class QuestionBankSnapshot {
+    private static final int MAGIC = 0x51424E4B; // "QBNK"
+    public static final int FORMAT_VERSION = 1;
+
+    // QuestionBankCache kind of the installed configs, a Map<Integer, QuizConfig> under ALL_COURSES
+    static final String QUIZ_CONFIGS = "quizConfigs";
+
+    private final long createdAt;
+    private final int maxQuestionId;
+    private final List<Course> courses;
+    private final Map<Integer, QuizConfig> configs;
+    private final QuestionBank bank;
+
+    private QuestionBankSnapshot(long createdAt, List<Course> courses, Map<Integer, QuizConfig> configs, QuestionBank bank) {
+        this.createdAt = createdAt;
+        this.maxQuestionId = bank.getMaxQuestionId();
+        this.courses = Collections.unmodifiableList(courses);
+        this.configs = Collections.unmodifiableMap(configs);
+        this.bank = bank;
+    }
+
+    // Current state of the database
+    public static QuestionBankSnapshot fromDatabase() throws SQLException {
+        long createdAt = System.currentTimeMillis();
+        QuestionBank bank = new CourseManager().getQuestionBank();
+        List<Course> courses = new CourseManager().getAllCourses();
+        return new QuestionBankSnapshot(createdAt, courses, loadConfigs(courses), bank);
+    }
+
+    private static Map<Integer, QuizConfig> loadConfigs(List<Course> courses) {
+        UserManager userManager = new UserManager();
+        Map<Integer, QuizConfig> configs = new HashMap<>();
+        for (Course course : courses) {
+            configs.put(course.getCourseId(), userManager.loadQuizConfig(course.getCourseId()));
+        }
+        return configs;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getMaxQuestionId() {
+        return maxQuestionId;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    // Config of a course, or null if the snapshot has none
+    public QuizConfig getQuizConfig(int courseId) {
+        return configs.get(courseId);
+    }
+
+    public QuestionBank getBank() {
+        return bank;
+    }
+
+    // File format
+
+    // Written to a temporary file first and moved into place, so readers never see a partial file
+    public void export(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tmp), 1 << 20))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(createdAt);
+                out.writeInt(courses.size());
+                for (Course course : courses) {
+                    out.writeInt(course.getCourseId());
+                    writeString(out, course.getCourseName());
+                    writeString(out, course.getCourseCode());
+                    writeString(out, course.getDescription());
+                    QuizConfig config = configs.get(course.getCourseId());
+                    out.writeBoolean(config != null);
+                    if (config != null) {
+                        out.writeInt(config.getQuestionLimit());
+                        out.writeInt(config.getTimePerQuestion());
+                        out.writeBoolean(config.isActive());
+                    }
+                }
+                bank.writeTo(out);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static QuestionBankSnapshot load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " is too large to load");
+            }
+            ByteBuffer in = ByteBuffer.allocate((int) channel.size());
+            while (in.hasRemaining()) {
+                if (channel.read(in, in.position()) < 0) {
+                    throw new IOException("Snapshot " + file + " ended early");
+                }
+            }
+            in.flip();
+            try {
+                if (in.getInt() != MAGIC) {
+                    throw new IOException(file + " is not a question bank snapshot");
+                }
+                int version = in.getInt();
+                if (version != FORMAT_VERSION) {
+                    throw new IOException("Unsupported snapshot format " + version + " in " + file
+                            + " (expected " + FORMAT_VERSION + ")");
+                }
+                long createdAt = in.getLong();
+                int courseCount = in.getInt();
+                List<Course> courses = new ArrayList<>(courseCount);
+                Map<Integer, QuizConfig> configs = new HashMap<>();
+                for (int i = 0; i < courseCount; i++) {
+                    int courseId = in.getInt();
+                    courses.add(new Course(courseId, readString(in), readString(in), readString(in)));
+                    if (in.get() != 0) {
+                        QuizConfig config = new QuizConfig(courseId, in.getInt(), in.getInt());
+                        config.setActive(in.get() != 0);
+                        configs.put(courseId, config);
+                    }
+                }
+                return new QuestionBankSnapshot(createdAt, courses, configs, QuestionBank.readFrom(in));
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt snapshot " + file + ": " + e, e);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Deltas
+
+    // This snapshot brought up to date with the database, fetching only questions added since it was taken
+    public QuestionBankSnapshot refresh() throws SQLException {
+        long createdAt = System.currentTimeMillis();
+        BitSet current = new BitSet();
+        QuestionBank.Builder added = new QuestionBank.Builder();
+
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows
+                try (ResultSet rs = stmt.executeQuery("SELECT id FROM questions")) {
+                    while (rs.next()) {
+                        current.set(rs.getInt(1));
+                    }
+                }
+            }
+
+            String sql = "SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions WHERE id > ? ORDER BY course_id, id";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, maxQuestionId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    String[] options = new String[4];
+                    while (rs.next()) {
+                        for (int i = 0; i < options.length; i++) {
+                            options[i] = rs.getString(5 + i);
+                        }
+                        added.add(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), options,
+                                rs.getInt(9) + 1); // convert 0-based to 1-based
+                    }
+                }
+            }
+        }
+
+        QuestionBank merged = merge(bank, added.build(), current);
+        List<Course> freshCourses = new CourseManager().getAllCourses();
+        return new QuestionBankSnapshot(createdAt, freshCourses, loadConfigs(freshCourses), merged);
+    }
+
+    // Both banks are in (course, id) order, so a single merge pass keeps that order
+    private static QuestionBank merge(QuestionBank old, QuestionBank added, BitSet current) {
+        if (added.size() == 0 && current.cardinality() == old.size()) {
+            return old; // nothing added or deleted
+        }
+        QuestionBank.Builder builder = new QuestionBank.Builder();
+        int i = 0;
+        int j = 0;
+        while (i < old.size() || j < added.size()) {
+            boolean takeOld = j == added.size() || (i < old.size()
+                    && (old.getCourseId(i) < added.getCourseId(j)
+                    || (old.getCourseId(i) == added.getCourseId(j) && old.getQuestionId(i) < added.getQuestionId(j))));
+            if (takeOld) {
+                if (current.get(old.getQuestionId(i))) {
+                    builder.add(old, i);
+                }
+                i++;
+            } else {
+                builder.add(added, j++);
+            }
+        }
+        return builder.build();
+    }
+
+    // Startup
+
+    // Makes this snapshot's bank, courses and quiz configs what CourseManager, QuestionSampler and
+    // UserManager serve, unless the question bank or a config changed since version was read
+    public boolean install(long version) {
+        QuestionBankCache cache = QuestionBankCache.getInstance();
+        return cache.put("questionBank", QuestionBankCache.ALL_COURSES, bank, version)
+                && cache.put("courses", QuestionBankCache.ALL_COURSES, courses, version)
+                && cache.put(QUIZ_CONFIGS, QuestionBankCache.ALL_COURSES, configs, version);
+    }
+
+    // Called once at application start. With -Dquiz.bank.snapshot=<file>, installs the snapshot right
+    // away if the file exists, then refreshes it from the database in the background and rewrites
+    // the file for the next start.
+    public static void installConfigured() {
+        if (DBConfig.QUESTION_BANK_SNAPSHOT == null || DBConfig.QUESTION_BANK_SNAPSHOT.isBlank()) {
+            return;
+        }
+        Path file = Paths.get(DBConfig.QUESTION_BANK_SNAPSHOT);
+        long version = QuestionBankCache.getInstance().getVersion(QuestionBankCache.ALL_COURSES);
+        QuestionBankSnapshot loaded = null;
+        if (Files.exists(file)) {
+            long start = System.nanoTime();
+            try {
+                loaded = load(file);
+                loaded.install(version);
+                System.out.printf("📦 Loaded %d questions from snapshot in %.1f ms%n",
+                        loaded.getBank().size(), (System.nanoTime() - start) / 1_000_000.0);
+            } catch (IOException e) {
+                System.out.println("❌ Question bank snapshot error: " + e.getMessage());
+            }
+        }
+
+        QuestionBankSnapshot base = loaded;
+        AsyncDataService.executor().execute(() -> {
+            try {
+                long refreshVersion = QuestionBankCache.getInstance().getVersion(QuestionBankCache.ALL_COURSES);
+                QuestionBankSnapshot fresh = base != null ? base.refresh() : fromDatabase();
+                fresh.install(refreshVersion);
+                fresh.export(file);
+            } catch (SQLException | IOException e) {
+                System.out.println("❌ Question bank snapshot refresh error: " + e.getMessage());
+            }
+        });
+    }
+}
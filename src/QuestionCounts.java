@@ -0,0 +1,43 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Question totals for one course, overall and per difficulty level
+public class QuestionCounts {
+    private final int courseId;
+    private final int total;
+    private final Map<String, Integer> byDifficulty;
+
+    public QuestionCounts(int courseId, Map<String, Integer> byDifficulty) {
+        this.courseId = courseId;
+        this.byDifficulty = Collections.unmodifiableMap(new LinkedHashMap<>(byDifficulty));
+        int sum = 0;
+        for (int count : byDifficulty.values()) {
+            sum += count;
+        }
+        this.total = sum;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCount(String difficultyLevel) {
+        return byDifficulty.getOrDefault(difficultyLevel, 0);
+    }
+
+    public Map<String, Integer> getByDifficulty() {
+        return byDifficulty;
+    }
+
+    @Override
+    public String toString() {
+        return total + " " + byDifficulty;
+    }
+}
@@ -0,0 +1,363 @@
+package service;
+
+import model.Question;
+import server.Json;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Streaming question export, per course or for the whole bank.
+// Rows come from a forward-only, read-only ResultSet with MySQL streaming enabled and are written
+// straight to a buffered file channel one at a time, so memory stays flat however many questions
+// there are. CSV and JSON Lines use the column names QuestionImporter reads, so an export can be
+// imported again as is.
+//
+// Binary layout (big-endian, strings as int length + UTF-8 bytes, -1 for null):
+//   int MAGIC "QEXP", int FORMAT_VERSION, long exportedAt, int courseId (-1 = all courses)
+//   per question: byte 1, int id, int courseId (-1 = none), text, byte optionCount, options,
+//                 byte correctOption (1-based), difficultyLevel
+//   byte 0, long questionCount
+public class QuestionExporter {
+    private static final int MAGIC = 0x51455850; // "QEXP"
+    public static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int OPTION_COUNT = 4;
+    private static final String[] CSV_HEADER = {"id", "course_id", "question_text", "option1", "option2",
+            "option3", "option4", "correct_option", "difficulty_level"};
+
+    public enum Format {
+        CSV(".csv"), JSONL(".jsonl"), BINARY(".qbx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        // Format matching a file name's extension, or null
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (name.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Written to a temporary file first and moved into place, so a failed export leaves no partial file.
+    // courseId null exports every question.
+    public ExportResult exportFile(Path file, Format format, Integer courseId) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            ExportResult result;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+                result = export(out, format, courseId);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return result;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Writes to out without closing it; out should be buffered. Database errors surface as IOException.
+    public ExportResult export(OutputStream out, Format format, Integer courseId) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream counter = new CountingOutputStream(out);
+        RecordSink sink;
+        switch (format) {
+            case CSV:
+                sink = new CsvSink(counter);
+                break;
+            case JSONL:
+                sink = new JsonLinesSink(counter);
+                break;
+            default:
+                sink = new BinarySink(counter, courseId);
+        }
+
+        String sql = "SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions"
+                + (courseId != null ? " WHERE course_id = ?" : "") + " ORDER BY course_id, id";
+        long count = 0;
+        try (Connection conn = ConnectionPool.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the result
+            if (courseId != null) {
+                ps.setInt(1, courseId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                String[] options = new String[OPTION_COUNT];
+                while (rs.next()) {
+                    int rowCourseId = rs.getInt(2);
+                    boolean hasCourse = !rs.wasNull();
+                    for (int i = 0; i < OPTION_COUNT; i++) {
+                        options[i] = rs.getString(5 + i);
+                    }
+                    sink.write(rs.getInt(1), hasCourse ? rowCourseId : null, rs.getString(4), options,
+                            rs.getInt(9) + 1, rs.getString(3)); // convert 0-based to 1-based
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Question export query failed: " + e.getMessage(), e);
+        }
+        sink.finish(count);
+        return new ExportResult(count, counter.count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Reads a binary export back, passing each question to consumer; returns the question count
+    public static long readBinary(InputStream in, Consumer<Question> consumer) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a question export");
+        }
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported export format " + version + " (expected " + FORMAT_VERSION + ")");
+        }
+        data.readLong(); // exportedAt
+        data.readInt(); // course filter
+        long count = 0;
+        while (data.readByte() != 0) {
+            int id = data.readInt();
+            int courseId = data.readInt();
+            String text = readString(data);
+            String[] options = new String[data.readByte()];
+            for (int i = 0; i < options.length; i++) {
+                options[i] = readString(data);
+            }
+            int correctOption = data.readByte();
+            consumer.accept(new Question(id, text, options, correctOption,
+                    Math.max(courseId, 0), readString(data))); // 0 = no course, as from RowMappers
+            count++;
+        }
+        long expected = data.readLong();
+        if (expected != count) {
+            throw new IOException("Truncated question export: " + count + " of " + expected + " questions");
+        }
+        return count;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Formats
+
+    private interface RecordSink {
+        void write(int id, Integer courseId, String text, String[] options, int correctOption, String difficulty)
+                throws IOException;
+
+        void finish(long count) throws IOException;
+    }
+
+    private static final class CsvSink implements RecordSink {
+        private final Writer out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        private CsvSink(OutputStream out) throws IOException {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.out.write(String.join(",", CSV_HEADER));
+            this.out.write("\r\n");
+        }
+
+        @Override
+        public void write(int id, Integer courseId, String text, String[] options, int correctOption,
+                          String difficulty) throws IOException {
+            line.setLength(0);
+            line.append(id).append(',');
+            if (courseId != null) {
+                line.append(courseId);
+            }
+            line.append(',');
+            appendField(text);
+            for (String option : options) {
+                line.append(',');
+                appendField(option);
+            }
+            line.append(',').append(correctOption).append(',');
+            appendField(difficulty);
+            line.append("\r\n");
+            out.append(line);
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private void appendField(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        @Override
+        public void finish(long count) throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class JsonLinesSink implements RecordSink {
+        private final Writer out;
+        private final Map<String, Object> record = new LinkedHashMap<>();
+
+        private JsonLinesSink(OutputStream out) {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(int id, Integer courseId, String text, String[] options, int correctOption,
+                          String difficulty) throws IOException {
+            record.put("id", id);
+            record.put("course_id", courseId);
+            record.put("question_text", text);
+            for (int i = 0; i < options.length; i++) {
+                record.put("option" + (i + 1), options[i]);
+            }
+            record.put("correct_option", correctOption);
+            record.put("difficulty_level", difficulty);
+            out.write(Json.write(record));
+            out.write('\n');
+        }
+
+        @Override
+        public void finish(long count) throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class BinarySink implements RecordSink {
+        private final DataOutputStream out;
+
+        private BinarySink(OutputStream out, Integer courseId) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(FORMAT_VERSION);
+            this.out.writeLong(System.currentTimeMillis());
+            this.out.writeInt(courseId == null ? -1 : courseId);
+        }
+
+        @Override
+        public void write(int id, Integer courseId, String text, String[] options, int correctOption,
+                          String difficulty) throws IOException {
+            out.writeByte(1);
+            out.writeInt(id);
+            out.writeInt(courseId == null ? -1 : courseId);
+            writeString(text);
+            out.writeByte(options.length);
+            for (String option : options) {
+                writeString(option);
+            }
+            out.writeByte(correctOption);
+            writeString(difficulty);
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public void finish(long count) throws IOException {
+            out.writeByte(0);
+            out.writeLong(count);
+            out.flush();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    public static class ExportResult {
+        private final long questionCount;
+        private final long bytesWritten;
+        private final long elapsedMillis;
+
+        public ExportResult(long questionCount, long bytesWritten, long elapsedMillis) {
+            this.questionCount = questionCount;
+            this.bytesWritten = bytesWritten;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getQuestionCount() {
+            return questionCount;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d questions, %.1f KB in %.1f s",
+                    questionCount, bytesWritten / 1024.0, elapsedMillis / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package model;
+
+// Listing projection of a question: enough to show and pick it, without text or options
+public final class QuestionHeader {
+    private final int questionId;
+    private final int courseId;
+    private final String difficultyLevel;
+
+    public QuestionHeader(int questionId, int courseId, String difficultyLevel) {
+        this.questionId = questionId;
+        this.courseId = courseId;
+        this.difficultyLevel = difficultyLevel;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getDifficultyLevel() {
+        return difficultyLevel;
+    }
+
+    @Override
+    public String toString() {
+        return "Question " + questionId + (difficultyLevel == null ? "" : " (" + difficultyLevel + ")");
+    }
+}
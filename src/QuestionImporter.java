@@ -0,0 +1,675 @@
+package service;
+
+import model.Course;
+import model.DBConfig;
+import server.Json;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+
+// Bulk question import from CSV or JSON files.
+// Files are parsed one record at a time, so memory stays flat for any file size. Valid rows are
+// inserted in JDBC batches of batchSize, each batch in its own transaction. If the database refuses a
+// batch, it is rolled back and its rows are inserted one at a time, so only the rows that fail are
+// rejected and the batches already committed are kept. A record that cannot be parsed is rejected on
+// its own and the import goes on.
+//
+// CSV: a header row naming the columns (any order), e.g.
+//   course_id,question_text,option1,option2,option3,option4,correct_option,difficulty_level
+// JSON: an array of objects, or one object per line, with the same keys or the API's
+//   {"courseId", "text", "options": [4 strings], "correctIndex", "difficultyLevel"}
+// correct_option is 1-4. Rows without a course use the default course passed to the import.
+public class QuestionImporter {
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int OPTION_COUNT = 4;
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportProgress progress);
+    }
+
+    private final int batchSize;
+
+    public QuestionImporter() {
+        this(DBConfig.IMPORT_BATCH_SIZE);
+    }
+
+    public QuestionImporter(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    // Format is chosen by extension: .csv, or .json / .jsonl. defaultCourseId may be null.
+    public ImportResult importFile(Path file, Integer defaultCourseId, ProgressListener listener) throws IOException {
+        boolean csv = isCsv(file);
+        long totalBytes = Files.size(file);
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+             Reader reader = new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8), 1 << 16)) {
+            RecordSource source = csv ? new CsvSource(reader) : new JsonSource(reader);
+            return run(source, defaultCourseId, listener, counter, totalBytes);
+        }
+    }
+
+    // True for .csv, false for .json / .jsonl
+    public static boolean isCsv(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        if (!csv && !name.endsWith(".json") && !name.endsWith(".jsonl")) {
+            throw new IOException("Unsupported file type: " + file.getFileName() + " (expected .csv, .json or .jsonl)");
+        }
+        return csv;
+    }
+
+    public ImportResult importCsv(Reader reader, Integer defaultCourseId, ProgressListener listener) throws IOException {
+        return run(new CsvSource(reader), defaultCourseId, listener, null, -1);
+    }
+
+    public ImportResult importJson(Reader reader, Integer defaultCourseId, ProgressListener listener) throws IOException {
+        return run(new JsonSource(reader), defaultCourseId, listener, null, -1);
+    }
+
+    private ImportResult run(RecordSource source, Integer defaultCourseId, ProgressListener listener,
+                             CountingInputStream counter, long totalBytes) throws IOException {
+        long start = System.nanoTime();
+        Set<Integer> courseIds = new HashSet<>();
+        for (Course course : new CourseManager().getAllCourses()) {
+            courseIds.add(course.getCourseId());
+        }
+        if (defaultCourseId != null && !courseIds.contains(defaultCourseId)) {
+            throw new IOException("Unknown course " + defaultCourseId);
+        }
+
+        Stats stats = new Stats();
+        List<Row> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Map<String, String> record;
+            Row row;
+            try {
+                record = source.next();
+                if (record == null) {
+                    break;
+                }
+                stats.read++;
+                row = toRow(record, defaultCourseId, courseIds, source.getLine());
+            } catch (MalformedRecordException e) {
+                stats.read++;
+                stats.reject(1, "Line " + source.getLine() + ": " + e.getMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                stats.reject(1, "Line " + source.getLine() + ": " + e.getMessage());
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                insert(batch, stats);
+                batch.clear();
+                report(listener, stats, counter, totalBytes);
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, stats);
+        }
+        report(listener, stats, counter, totalBytes);
+
+        if (!stats.touchedCourses.isEmpty()) {
+            QuestionBankCache cache = QuestionBankCache.getInstance();
+            for (Integer courseId : stats.touchedCourses) {
+                if (courseId == null) {
+                    cache.invalidateAll();
+                } else {
+                    cache.invalidateCourse(courseId);
+                }
+            }
+        }
+        return new ImportResult(stats.read, stats.imported, stats.rejected, stats.errors,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void report(ProgressListener listener, Stats stats, CountingInputStream counter, long totalBytes) {
+        if (listener != null) {
+            listener.onProgress(new ImportProgress(stats.read, stats.imported, stats.rejected,
+                    counter == null ? -1 : counter.count, totalBytes));
+        }
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO questions (course_id, question_text, option1, option2, "
+            + "option3, option4, correct_option, difficulty_level) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private void insert(List<Row> batch, Stats stats) {
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            try {
+                insertBatch(conn, batch);
+                for (Row row : batch) {
+                    stats.inserted(row);
+                }
+            } catch (SQLException e) {
+                // A single bad row fails the whole batch; find it by retrying the rows one by one
+                insertEach(conn, batch, stats);
+            }
+        } catch (SQLException e) {
+            stats.reject(batch.size(), "Batch of " + batch.size() + " rows ending at record " + stats.read
+                    + " rolled back: " + e.getMessage());
+        }
+    }
+
+    private static void insertBatch(Connection conn, List<Row> batch) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            for (Row row : batch) {
+                bind(ps, row);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Each row commits on its own, so one failure costs only that row
+    private static void insertEach(Connection conn, List<Row> batch, Stats stats) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            for (Row row : batch) {
+                try {
+                    bind(ps, row);
+                    ps.executeUpdate();
+                    stats.inserted(row);
+                } catch (SQLException e) {
+                    stats.reject(1, "Line " + row.line + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Row row) throws SQLException {
+        if (row.courseId == null) {
+            ps.setNull(1, Types.INTEGER);
+        } else {
+            ps.setInt(1, row.courseId);
+        }
+        ps.setString(2, row.text);
+        for (int i = 0; i < OPTION_COUNT; i++) {
+            ps.setString(3 + i, row.options[i]);
+        }
+        ps.setInt(7, row.correctOption - 1); // convert 1-based to 0-based for DB
+        ps.setString(8, row.difficulty);
+    }
+
+    // Validation
+
+    private static Row toRow(Map<String, String> record, Integer defaultCourseId, Set<Integer> courseIds, long line) {
+        Integer courseId = defaultCourseId;
+        String courseValue = field(record, "course_id", "courseid", "course");
+        if (courseValue != null) {
+            courseId = parseInt(courseValue, "course id");
+            if (!courseIds.contains(courseId)) {
+                throw new IllegalArgumentException("unknown course " + courseId);
+            }
+        }
+
+        String text = field(record, "question_text", "text", "question");
+        if (text == null) {
+            throw new IllegalArgumentException("missing question text");
+        }
+
+        String[] options = new String[OPTION_COUNT];
+        for (int i = 0; i < OPTION_COUNT; i++) {
+            options[i] = field(record, "option" + (i + 1), "options." + i);
+            if (options[i] == null) {
+                throw new IllegalArgumentException("missing option " + (i + 1));
+            }
+        }
+        if (record.containsKey("options." + OPTION_COUNT)) {
+            throw new IllegalArgumentException("more than " + OPTION_COUNT + " options");
+        }
+
+        String correctValue = field(record, "correct_option", "correctindex", "correct", "answer");
+        if (correctValue == null) {
+            throw new IllegalArgumentException("missing correct option");
+        }
+        int correct = parseInt(correctValue, "correct option");
+        if (correct < 1 || correct > OPTION_COUNT) {
+            throw new IllegalArgumentException("correct option must be 1-" + OPTION_COUNT + ", got " + correct);
+        }
+
+        return new Row(courseId, text, options, correct, field(record, "difficulty_level", "difficultylevel", "difficulty"),
+                line);
+    }
+
+    // First non-blank value among the given (lower-case) keys
+    private static String field(Map<String, String> record, String... keys) {
+        for (String key : keys) {
+            String value = record.get(key);
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            // JSON numbers arrive as "3" or "3.0"
+            double number = Double.parseDouble(value);
+            if (number != Math.rint(number)) {
+                throw new NumberFormatException();
+            }
+            return (int) number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + what + " '" + value + "'");
+        }
+    }
+
+    private static final class Row {
+        private final Integer courseId;
+        private final String text;
+        private final String[] options;
+        private final int correctOption;
+        private final String difficulty;
+        private final long line; // where the record starts in the input, for error messages
+
+        private Row(Integer courseId, String text, String[] options, int correctOption, String difficulty, long line) {
+            this.courseId = courseId;
+            this.text = text;
+            this.options = options;
+            this.correctOption = correctOption;
+            this.difficulty = difficulty;
+            this.line = line;
+        }
+    }
+
+    private static final class Stats {
+        private long read;
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+        private final Set<Integer> touchedCourses = new HashSet<>();
+
+        private void inserted(Row row) {
+            imported++;
+            touchedCourses.add(row.courseId);
+        }
+
+        private void reject(long rows, String error) {
+            rejected += rows;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    // Parsers: each record becomes a map of lower-case field names to values (package-private for tests)
+
+    interface RecordSource {
+        // Next record, or null at end of input. A record that cannot be parsed but whose end was found
+        // is skipped with MalformedRecordException; anything worse ends the import with IOException.
+        Map<String, String> next() throws IOException;
+
+        // 1-based line of the input where the last record returned (or skipped) starts
+        long getLine();
+    }
+
+    static final class MalformedRecordException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private MalformedRecordException(String message) {
+            super(message);
+        }
+
+        private MalformedRecordException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    // RFC 4180 CSV: quoted fields may contain commas, doubled quotes and line breaks. A quote inside an
+    // unquoted field, or text after a closing quote, makes that record malformed; parsing resumes at the
+    // next record. Any Reader works: it is buffered here and read ahead by one character at most.
+    static final class CsvSource implements RecordSource {
+        private final PushbackReader reader;
+        private final List<String> header;
+        private boolean eof;
+        private long lines;      // line breaks read so far
+        private long recordLine;
+
+        CsvSource(Reader reader) throws IOException {
+            this.reader = new PushbackReader(reader instanceof BufferedReader ? reader : new BufferedReader(reader), 1);
+            List<String> names;
+            try {
+                names = readRecord();
+            } catch (MalformedRecordException e) {
+                throw new IOException("Malformed CSV header: " + e.getMessage(), e);
+            }
+            if (names == null) {
+                throw new IOException("CSV file is empty");
+            }
+            header = new ArrayList<>(names.size());
+            for (String name : names) {
+                header.add(name.trim().toLowerCase(Locale.ROOT).replace("\uFEFF", ""));
+            }
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> values;
+            do {
+                recordLine = lines + 1;
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty()); // blank line
+
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                record.put(header.get(i), values.get(i));
+            }
+            return record;
+        }
+
+        @Override
+        public long getLine() {
+            return recordLine;
+        }
+
+        private List<String> readRecord() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean closed = false; // the current field was quoted and its closing quote has been read
+            String malformed = null;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (c == '\n') {
+                    lines++;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            if (next != -1) {
+                                reader.unread(next);
+                            }
+                            quoted = false;
+                            closed = true;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    closed = false;
+                } else if (c == '\n') {
+                    break;
+                } else if (c == '\r') {
+                    continue;
+                } else if (closed) {
+                    if (malformed == null && c != ' ' && c != '\t') {
+                        malformed = "text after the closing quote of field " + (fields.size() + 1);
+                    }
+                } else if (c == '"') {
+                    if (field.length() == 0) {
+                        quoted = true;
+                    } else if (malformed == null) {
+                        malformed = "quote inside unquoted field " + (fields.size() + 1);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (c == -1) {
+                eof = true;
+                if (!any) {
+                    return null;
+                }
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field at end of CSV file");
+                }
+            }
+            if (malformed != null) {
+                throw new MalformedRecordException("Malformed CSV record: " + malformed);
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    // A JSON array of objects or JSON Lines. Each object's text is cut out of the stream and parsed
+    // on its own, so only one record is in memory at a time.
+    static final class JsonSource implements RecordSource {
+        private final Reader reader;
+        private boolean started;
+        private boolean inArray;
+        private long lines;      // line breaks read so far
+        private long recordLine;
+
+        JsonSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            int c = skipSeparators();
+            if (!started) {
+                started = true;
+                if (c == '[') {
+                    inArray = true;
+                    c = skipSeparators();
+                }
+            }
+            if (c == -1) {
+                if (inArray) {
+                    throw new IOException("Unterminated JSON array");
+                }
+                return null;
+            }
+            if (c == ']' && inArray) {
+                return null;
+            }
+            if (c != '{') {
+                throw new IOException("Expected a JSON object but found '" + (char) c + "' on line " + (lines + 1));
+            }
+
+            recordLine = lines + 1;
+            Map<String, Object> object;
+            try {
+                object = Json.parseObject(readObject());
+            } catch (IllegalArgumentException e) {
+                throw new MalformedRecordException("Malformed JSON record: " + e.getMessage(), e);
+            }
+            Map<String, String> record = new HashMap<>();
+            for (Map.Entry<String, Object> entry : object.entrySet()) {
+                String key = entry.getKey().toLowerCase(Locale.ROOT);
+                Object value = entry.getValue();
+                if (value instanceof List) {
+                    List<?> items = (List<?>) value;
+                    for (int i = 0; i < items.size(); i++) {
+                        record.put(key + "." + i, items.get(i) == null ? null : String.valueOf(items.get(i)));
+                    }
+                } else if (value != null) {
+                    record.put(key, String.valueOf(value));
+                }
+            }
+            return record;
+        }
+
+        @Override
+        public long getLine() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            int c = reader.read();
+            if (c == '\n') {
+                lines++;
+            }
+            return c;
+        }
+
+        private int skipSeparators() throws IOException {
+            int c;
+            do {
+                c = read();
+            } while (c == ',' || Character.isWhitespace(c));
+            return c;
+        }
+
+        // Text of one object; the opening brace has already been read
+        private String readObject() throws IOException {
+            StringBuilder sb = new StringBuilder("{");
+            int depth = 1;
+            boolean inString = false;
+            while (depth > 0) {
+                int c = read();
+                if (c == -1) {
+                    throw new IOException("Unterminated JSON object");
+                }
+                sb.append((char) c);
+                if (inString) {
+                    if (c == '\\') {
+                        int escaped = read();
+                        if (escaped == -1) {
+                            throw new IOException("Unterminated JSON string");
+                        }
+                        sb.append((char) escaped);
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    // Snapshot passed to the progress listener after every batch
+    public static class ImportProgress {
+        private final long recordsRead;
+        private final long imported;
+        private final long rejected;
+        private final long bytesRead;
+        private final long totalBytes;
+
+        ImportProgress(long recordsRead, long imported, long rejected, long bytesRead, long totalBytes) {
+            this.recordsRead = recordsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.bytesRead = bytesRead;
+            this.totalBytes = totalBytes;
+        }
+
+        public long getRecordsRead() {
+            return recordsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        // Share of the file consumed so far (0-1), or -1 when the size is unknown
+        public double getFraction() {
+            return totalBytes <= 0 ? -1 : Math.min(1.0, (double) bytesRead / totalBytes);
+        }
+    }
+
+    public static class ImportResult {
+        private final long recordsRead;
+        private final long imported;
+        private final long rejected;
+        private final List<String> errors;
+        private final long elapsedMillis;
+
+        public ImportResult(long recordsRead, long imported, long rejected, List<String> errors, long elapsedMillis) {
+            this.recordsRead = recordsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRecordsRead() {
+            return recordsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        // Up to the first 100 validation or batch errors
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getQuestionsPerMinute() {
+            return elapsedMillis == 0 ? 0 : imported * 60_000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d imported, %d rejected of %d records in %.1f s (%.0f questions/min)",
+                    imported, rejected, recordsRead, elapsedMillis / 1000.0, getQuestionsPerMinute());
+        }
+    }
+}
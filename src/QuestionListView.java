@@ -0,0 +1,158 @@
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.VBox;
+import model.Question;
+import model.QuestionHeader;
+import service.AsyncDataService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Scrolling list of questions for the teacher screens. The ListView is virtualized, so only the
+// dozen or so visible rows exist as nodes and are refilled as the user scrolls; question headers
+// (id, course, difficulty) are fetched a page at a time by ascending id as the end of the loaded
+// rows comes into view. Text, options and answer are loaded only for a row the user clicks open.
+public final class QuestionListView extends ListView<QuestionHeader> {
+    private final AsyncDataService asyncData;
+    private final boolean showCourse;
+    private final Set<Integer> expanded = new HashSet<>();
+    // Full questions of the rows opened so far (null value: deleted since the page was loaded)
+    private final Map<Integer, Question> loaded = new HashMap<>();
+
+    // courseId null lists every course
+    public QuestionListView(AsyncDataService asyncData, Integer courseId, String emptyMessage) {
+        this.asyncData = asyncData;
+        this.showCourse = courseId == null;
+        setCellFactory(list -> new QuestionCell());
+        setStyle("-fx-background-radius: 10; -fx-background-color: rgba(255,255,255,0.9);");
+
+        Label loadingLabel = new Label("⏳ Loading questions...");
+        loadingLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+        setPlaceholder(loadingLabel);
+
+        PagedTableLoader.attach(this, (last, limit) ->
+                asyncData.getQuestionHeaderPage(courseId, last == null ? 0 : last.getQuestionId(), limit)
+                        .thenApply(page -> {
+                            if (last == null && page.isEmpty()) {
+                                Platform.runLater(() -> {
+                                    Label emptyLabel = new Label(emptyMessage);
+                                    emptyLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #666; -fx-font-style: italic;");
+                                    setPlaceholder(emptyLabel);
+                                });
+                            }
+                            return page;
+                        }));
+    }
+
+    // Builds its labels once; updateItem only swaps their text as the cell is reused for other rows.
+    // Clicking the row opens or closes it.
+    private final class QuestionCell extends ListCell<QuestionHeader> {
+        private final VBox box = new VBox(6);
+        private final Label headerLabel = new Label();
+        private final Label textLabel = new Label();
+        private final List<Label> optionLabels = new ArrayList<>();
+        private final Label correctLabel = new Label();
+
+        QuestionCell() {
+            headerLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #666;");
+            textLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
+            textLabel.setWrapText(true);
+            correctLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #4CAF50;");
+            box.setStyle("-fx-padding: 10 15 10 15;");
+            box.getChildren().addAll(headerLabel, textLabel, correctLabel);
+            setPrefWidth(0); // let labels wrap to the list width instead of widening it
+
+            setOnMouseClicked(e -> {
+                QuestionHeader header = getItem();
+                if (header == null) {
+                    return;
+                }
+                if (!expanded.remove(header.getQuestionId())) {
+                    expanded.add(header.getQuestionId());
+                    load(header.getQuestionId());
+                }
+                updateItem(header, false);
+            });
+        }
+
+        private void load(int questionId) {
+            if (loaded.containsKey(questionId)) {
+                return;
+            }
+            asyncData.getQuestion(questionId).whenCompleteAsync((question, error) -> {
+                if (error != null) {
+                    System.out.println("❌ Error loading question " + questionId + ": " + error.getMessage());
+                    expanded.remove(questionId);
+                } else {
+                    loaded.put(questionId, question);
+                }
+                QuestionHeader header = getItem();
+                if (header != null && header.getQuestionId() == questionId) {
+                    updateItem(header, false);
+                }
+            }, Platform::runLater);
+        }
+
+        @Override
+        protected void updateItem(QuestionHeader header, boolean empty) {
+            super.updateItem(header, empty);
+            if (empty || header == null) {
+                setGraphic(null);
+                return;
+            }
+
+            int id = header.getQuestionId();
+            boolean open = expanded.contains(id);
+            String course = showCourse ? "   •   Course ID: " + header.getCourseId() : "";
+            String difficulty = header.getDifficultyLevel() == null ? "" : "   •   Difficulty: " + header.getDifficultyLevel();
+            headerLabel.setText((open ? "▾ " : "▸ ") + "Question ID: " + id + course + difficulty);
+
+            Question question = open ? loaded.get(id) : null;
+            if (!open) {
+                showDetails(null, null);
+            } else if (question != null) {
+                showDetails("Q: " + question.getText(), question);
+            } else {
+                showDetails(loaded.containsKey(id) ? "This question no longer exists." : "⏳ Loading question...", null);
+            }
+            setGraphic(box);
+        }
+
+        // text null hides everything below the header; question null shows only the text line
+        private void showDetails(String text, Question question) {
+            textLabel.setText(text);
+            textLabel.setVisible(text != null);
+            textLabel.setManaged(text != null);
+
+            String[] options = question == null ? new String[0] : question.getOptions();
+            while (optionLabels.size() < options.length) {
+                Label optionLabel = new Label();
+                optionLabel.setStyle("-fx-text-fill: #555;");
+                optionLabel.setWrapText(true);
+                optionLabels.add(optionLabel);
+                box.getChildren().add(box.getChildren().size() - 1, optionLabel); // before the answer
+            }
+            for (int i = 0; i < optionLabels.size(); i++) {
+                Label optionLabel = optionLabels.get(i);
+                boolean used = i < options.length;
+                optionLabel.setVisible(used);
+                optionLabel.setManaged(used);
+                if (used) {
+                    optionLabel.setText((i + 1) + ". " + options[i]);
+                }
+            }
+
+            correctLabel.setVisible(question != null);
+            correctLabel.setManaged(question != null);
+            if (question != null) {
+                correctLabel.setText("Correct Answer: " + question.getCorrectIndex());
+            }
+        }
+    }
+}
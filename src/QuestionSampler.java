@@ -0,0 +1,92 @@
+package service;
+
+import model.DBConfig;
+import model.Question;
+import model.QuestionBank;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Picks a uniform random subset of a course's questions without ORDER BY RAND().
+// Works on the cached id array (or the columnar QuestionBank when enabled) and only materialises
+// the chosen rows.
+public class QuestionSampler {
+    private final CourseManager courseManager;
+
+    public QuestionSampler() {
+        this(new CourseManager());
+    }
+
+    public QuestionSampler(CourseManager courseManager) {
+        this.courseManager = courseManager;
+    }
+
+    // Returns up to limit distinct questions from the course in random order
+    public List<Question> sample(int courseId, int limit) {
+        try {
+            // Columnar bank when enabled, or when one is already loaded (e.g. from a snapshot file)
+            QuestionBank bank = DBConfig.COLUMNAR_QUESTION_BANK ? courseManager.getQuestionBank()
+                    : QuestionBankCache.getInstance().getIfPresent("questionBank", QuestionBankCache.ALL_COURSES);
+            if (bank != null) {
+                return bank.questions(sampleRows(bank, courseId, limit, ThreadLocalRandom.current()));
+            }
+
+            int[] ids = courseManager.getQuestionIdsByCourse(courseId);
+            int[] picks = pickIndexes(ids.length, limit, ThreadLocalRandom.current());
+
+            // Whole course already cached (same id order): no database round trip at all
+            List<Question> cached = QuestionBankCache.getInstance().getIfPresent("questions", courseId);
+            if (cached != null && cached.size() == ids.length) {
+                List<Question> sampled = new ArrayList<>(picks.length);
+                for (int index : picks) {
+                    sampled.add(cached.get(index));
+                }
+                return sampled;
+            }
+
+            int[] sampledIds = new int[picks.length];
+            for (int i = 0; i < picks.length; i++) {
+                sampledIds[i] = ids[picks[i]];
+            }
+            return courseManager.getQuestionsByIds(sampledIds);
+        } catch (SQLException e) {
+            System.out.println("Question sampling error: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Bank rows of up to limit distinct questions from the course, in random order; no objects are created
+    public static int[] sampleRows(QuestionBank bank, int courseId, int limit, Random random) {
+        int start = bank.courseStart(courseId);
+        if (start < 0) {
+            return new int[0];
+        }
+        int[] rows = pickIndexes(bank.courseSize(courseId), limit, random);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] += start;
+        }
+        return rows;
+    }
+
+    // Partial Fisher-Yates shuffle over [0, n): the first k slots of a virtual shuffled array.
+    // Only displaced slots are stored, so cost is O(k) regardless of the course size.
+    static int[] pickIndexes(int n, int k, Random random) {
+        int count = Math.max(0, Math.min(n, k));
+        int[] picks = new int[count];
+        Map<Integer, Integer> displaced = new HashMap<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int atJ = displaced.getOrDefault(j, j);
+            int atI = displaced.getOrDefault(i, i);
+            picks[i] = atJ;
+            displaced.put(j, atI);
+        }
+        return picks;
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+// How a question has fared across recorded attempts
+public class QuestionStats {
+    private final int questionId;
+    private final int timesAsked;
+    private final int timesCorrect;
+    private final int timesUnanswered;
+    private final double averageLatencyMillis;
+
+    public QuestionStats(int questionId, int timesAsked, int timesCorrect, int timesUnanswered, double averageLatencyMillis) {
+        this.questionId = questionId;
+        this.timesAsked = timesAsked;
+        this.timesCorrect = timesCorrect;
+        this.timesUnanswered = timesUnanswered;
+        this.averageLatencyMillis = averageLatencyMillis;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getTimesAsked() {
+        return timesAsked;
+    }
+
+    public int getTimesCorrect() {
+        return timesCorrect;
+    }
+
+    // Skipped or timed out
+    public int getTimesUnanswered() {
+        return timesUnanswered;
+    }
+
+    public double getCorrectRate() {
+        return timesAsked == 0 ? 0 : timesCorrect * 100.0 / timesAsked;
+    }
+
+    public double getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Q%d: %d/%d correct (%.1f%%), avg %.0f ms",
+                questionId, timesCorrect, timesAsked, getCorrectRate(), averageLatencyMillis);
+    }
+}
@@ -0,0 +1,120 @@
+import javafx.css.PseudoClass;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.Toggle;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.VBox;
+import model.Question;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+// Question card of the quiz screens: number, optional course and difficulty, text, answer options
+// and feedback. Its nodes are created once per quiz; show() swaps the text and options for the next
+// question, and feedback states are pseudo-classes of quiz.css, so moving through a quiz neither
+// allocates nodes nor parses inline styles.
+public final class QuestionView extends VBox {
+    private static final URL STYLESHEET_URL = QuestionView.class.getResource("quiz.css");
+    public static final String STYLESHEET = STYLESHEET_URL == null ? null : STYLESHEET_URL.toExternalForm();
+
+    private static final PseudoClass CORRECT = PseudoClass.getPseudoClass("correct");
+    private static final PseudoClass WRONG = PseudoClass.getPseudoClass("wrong");
+    private static final PseudoClass SKIPPED = PseudoClass.getPseudoClass("skipped");
+
+    private final Label numberLabel = styled(new Label(), "question-number");
+    private final Label courseLabel = styled(new Label(), "question-meta");
+    private final Label difficultyLabel = styled(new Label(), "question-meta");
+    private final Label textLabel = styled(new Label(), "question-text");
+    private final VBox optionsBox = styled(new VBox(), "question-options");
+    private final List<RadioButton> optionButtons = new ArrayList<>();
+    private final ToggleGroup answerGroup = new ToggleGroup();
+    private final Label feedbackLabel = styled(new Label(), "question-feedback");
+    private final boolean showDetails;
+
+    // courseName null leaves out the course and difficulty lines
+    public QuestionView(String courseName) {
+        applyStylesheet(this);
+        getStyleClass().add("question-view");
+
+        showDetails = courseName != null;
+        if (showDetails) {
+            courseLabel.setText("📚 " + courseName);
+        }
+        setShown(courseLabel, showDetails);
+        setShown(difficultyLabel, showDetails);
+        textLabel.setWrapText(true);
+        setShown(feedbackLabel, false);
+
+        getChildren().addAll(numberLabel, courseLabel, difficultyLabel, textLabel, optionsBox, feedbackLabel);
+    }
+
+    public static void applyStylesheet(Parent parent) {
+        if (STYLESHEET != null && !parent.getStylesheets().contains(STYLESHEET)) {
+            parent.getStylesheets().add(STYLESHEET);
+        }
+    }
+
+    private static <T extends javafx.scene.Node> T styled(T node, String styleClass) {
+        node.getStyleClass().add(styleClass);
+        return node;
+    }
+
+    private static void setShown(javafx.scene.Node node, boolean shown) {
+        node.setVisible(shown);
+        node.setManaged(shown);
+    }
+
+    // Displays question index (0-based) of count, with no option selected and no feedback
+    public void show(Question question, int index, int count) {
+        numberLabel.setText("Question " + (index + 1) + " of " + count);
+        if (showDetails) {
+            difficultyLabel.setText("🎯 Difficulty: "
+                    + (question.getDifficultyLevel() != null ? question.getDifficultyLevel() : "Medium"));
+        }
+        textLabel.setText(question.getText());
+
+        answerGroup.selectToggle(null);
+        String[] options = question.getOptions();
+        while (optionButtons.size() < options.length) {
+            RadioButton button = styled(new RadioButton(), "question-option");
+            button.setToggleGroup(answerGroup);
+            button.setUserData(optionButtons.size() + 1); // 1-based option index
+            optionButtons.add(button);
+            optionsBox.getChildren().add(button);
+        }
+        for (int i = 0; i < optionButtons.size(); i++) {
+            RadioButton button = optionButtons.get(i);
+            boolean used = i < options.length;
+            setShown(button, used);
+            if (used) {
+                button.setText((i + 1) + ". " + options[i]);
+            }
+        }
+
+        setShown(feedbackLabel, false);
+    }
+
+    // 1-based option the student picked, or null
+    public Integer getSelectedAnswer() {
+        Toggle selected = answerGroup.getSelectedToggle();
+        return selected == null ? null : (Integer) selected.getUserData();
+    }
+
+    public void showFeedback(boolean correct) {
+        showFeedback(correct ? "✅ Correct!" : "❌ Wrong!", correct ? CORRECT : WRONG);
+    }
+
+    public void showSkipped() {
+        showFeedback("⏰ Time's up! Question skipped.", SKIPPED);
+    }
+
+    private void showFeedback(String text, PseudoClass state) {
+        feedbackLabel.setText(text);
+        feedbackLabel.pseudoClassStateChanged(CORRECT, state == CORRECT);
+        feedbackLabel.pseudoClassStateChanged(WRONG, state == WRONG);
+        feedbackLabel.pseudoClassStateChanged(SKIPPED, state == SKIPPED);
+        setShown(feedbackLabel, true);
+    }
+}
@@ -1,4 +1,5 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -7,15 +8,20 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import service.AsyncDataService;
+import service.QuestionBankSnapshot;
 import service.UserManager;
+import server.QuizServiceClient;
 import model.User;
 import model.Teacher;
-import model.DBConfig;
-import java.sql.*;
+import model.ScoreEntry;
+import java.util.ArrayList;
+import java.util.List;
 
 public class QuizApp extends Application {
     private Stage primaryStage;
     private UserManager userManager;
+    private AsyncDataService asyncData;
     // Add fields to track current logged-in users
     private User currentStudent;
     private Teacher currentTeacher;
@@ -24,6 +30,7 @@ public class QuizApp extends Application {
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
         this.userManager = new UserManager();
+        this.asyncData = new AsyncDataService(userManager);
 
         showMainScreen();
 
@@ -118,23 +125,35 @@ public class QuizApp extends Application {
         }
 
         if (isTeacher) {
-            Teacher teacher = userManager.teacherLogin(username, password);
-            if (teacher != null) {
-                currentTeacher = teacher; // Track logged-in teacher
-                messageLabel.setText("✅ Login successful!");
-                showTeacherDashboard(teacher);
-            } else {
-                messageLabel.setText("❌ Invalid credentials");
-            }
+            // A quiz server only serves full questions to a teacher session, so log in there too
+            messageLabel.setText("⏳ Logging in...");
+            asyncData.teacherLogin(username, password).thenAcceptAsync(teacher -> {
+                if (teacher != null) {
+                    currentTeacher = teacher; // Track logged-in teacher
+                    messageLabel.setText("✅ Login successful!");
+                    showTeacherDashboard(teacher);
+                } else {
+                    messageLabel.setText("❌ Invalid credentials");
+                }
+            }, Platform::runLater).exceptionally(e -> {
+                Platform.runLater(() -> messageLabel.setText("❌ Login failed, please try again"));
+                return null;
+            });
         } else {
-            User user = userManager.login(username, password);
-            if (user != null) {
-                currentStudent = user; // Track logged-in student
-                messageLabel.setText("✅ Login successful!");
-                showStudentDashboard(user);
-            } else {
-                messageLabel.setText("❌ Invalid credentials");
-            }
+            // Goes to the quiz server when one is configured, otherwise straight to the database
+            messageLabel.setText("⏳ Logging in...");
+            asyncData.login(username, password).thenAcceptAsync(user -> {
+                if (user != null) {
+                    currentStudent = user; // Track logged-in student
+                    messageLabel.setText("✅ Login successful!");
+                    showStudentDashboard(user);
+                } else {
+                    messageLabel.setText("❌ Invalid credentials");
+                }
+            }, Platform::runLater).exceptionally(e -> {
+                Platform.runLater(() -> messageLabel.setText("❌ Login failed, please try again"));
+                return null;
+            });
         }
     }
 
@@ -144,18 +163,18 @@ public class QuizApp extends Application {
             return;
         }
 
-        boolean success;
-        if (isTeacher) {
-            success = userManager.registerTeacher(username, password);
-        } else {
-            success = userManager.register(username, password);
-        }
-
-        if (success) {
-            messageLabel.setText("✅ Registration successful! You can now login.");
-        } else {
-            messageLabel.setText("❌ Username already exists");
-        }
+        messageLabel.setText("⏳ Registering...");
+        (isTeacher ? asyncData.registerTeacher(username, password) : asyncData.register(username, password))
+                .thenAcceptAsync(success -> {
+                    if (success) {
+                        messageLabel.setText("✅ Registration successful! You can now login.");
+                    } else {
+                        messageLabel.setText("❌ Username already exists");
+                    }
+                }, Platform::runLater).exceptionally(e -> {
+                    Platform.runLater(() -> messageLabel.setText("❌ Registration failed, please try again"));
+                    return null;
+                });
     }
 
     private void showStudentDashboard(User student) {
@@ -176,7 +195,6 @@ public class QuizApp extends Application {
         Button leaderboardBtn = createStyledButton("🏆 View Leaderboard", "#2196F3");
         Button logoutBtn = createStyledButton("🚪 Logout", "#f44336");
 
-        // UPDATED: Use CourseSelectionController instead of old QuizScreenController
         takeQuizBtn.setOnAction(e -> showCourseSelection(student));
         leaderboardBtn.setOnAction(e -> showLeaderboardScreen(false));
         logoutBtn.setOnAction(e -> showMainScreen());
@@ -265,7 +283,7 @@ public class QuizApp extends Application {
         scoreCol.setPrefWidth(100);
         scoreCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().score));
 
-        table.getColumns().addAll(rankCol, nameCol, scoreCol);
+        table.getColumns().setAll(List.of(rankCol, nameCol, scoreCol));
 
         // Load leaderboard data
         loadLeaderboardData(table);
@@ -289,22 +307,20 @@ public class QuizApp extends Application {
     }
 
     private void loadLeaderboardData(TableView<LeaderboardEntry> table) {
-        String sql = "SELECT username, score FROM users ORDER BY score DESC";
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            int rank = 1;
-            while (rs.next()) {
-                table.getItems().add(new LeaderboardEntry(
-                        String.valueOf(rank++),
-                        rs.getString("username"),
-                        String.valueOf(rs.getInt("score"))
+        // Keyset pages from the leaderboard index, fetched as the table is scrolled
+        PagedTableLoader.attach(table, (last, limit) -> (last == null
+                ? asyncData.getLeaderboardPage(0, null, limit)
+                : asyncData.getLeaderboardPage(Integer.parseInt(last.score), last.username, limit)).thenApply(page -> {
+            List<LeaderboardEntry> rows = new ArrayList<>(page.size());
+            for (ScoreEntry entry : page) {
+                rows.add(new LeaderboardEntry(
+                        String.valueOf(entry.getRank()),
+                        entry.getUsername(),
+                        String.valueOf(entry.getScore())
                 ));
             }
-        } catch (SQLException e) {
-            System.out.println("Leaderboard load error: " + e.getMessage());
-        }
+            return rows;
+        }));
     }
 
     private void showStudentsListScreen() {
@@ -329,7 +345,7 @@ public class QuizApp extends Application {
         nameCol.setPrefWidth(250);
         nameCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().name));
 
-        table.getColumns().addAll(serialCol, nameCol);
+        table.getColumns().setAll(List.of(serialCol, nameCol));
 
         // Load students data
         loadStudentsData(table);
@@ -350,21 +366,18 @@ public class QuizApp extends Application {
     }
 
     private void loadStudentsData(TableView<StudentEntry> table) {
-        String sql = "SELECT username FROM users ORDER BY username ASC";
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            int serial = 1;
-            while (rs.next()) {
-                table.getItems().add(new StudentEntry(
-                        String.valueOf(serial++),
-                        rs.getString("username")
-                ));
-            }
-        } catch (SQLException e) {
-            System.out.println("Students load error: " + e.getMessage());
-        }
+        // Keyset pages of usernames, fetched as the table is scrolled
+        PagedTableLoader.attach(table, (last, limit) -> {
+            int firstSerial = last == null ? 1 : Integer.parseInt(last.serial) + 1;
+            return asyncData.getStudentsPage(last == null ? null : last.name, limit).thenApply(page -> {
+                int serial = firstSerial;
+                List<StudentEntry> rows = new ArrayList<>(page.size());
+                for (String username : page) {
+                    rows.add(new StudentEntry(String.valueOf(serial++), username));
+                }
+                return rows;
+            });
+        });
     }
 
     private Button createStyledButton(String text, String color) {
@@ -476,66 +489,20 @@ public class QuizApp extends Application {
         title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
         title.setStyle("-fx-text-fill: white;");
 
-        ScrollPane scrollPane = new ScrollPane();
-        VBox questionsBox = new VBox(15);
-        questionsBox.setPadding(new Insets(20));
-        questionsBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 10;");
-
-        loadAllQuestions(questionsBox);
-
-        scrollPane.setContent(questionsBox);
-        scrollPane.setPrefHeight(350);
-        scrollPane.setFitToWidth(true);
+        // Virtualized and paged: only the visible rows are nodes, further rows load while scrolling
+        QuestionListView questionList = new QuestionListView(asyncData, null, "No questions found.");
+        questionList.setPrefHeight(350);
+        VBox.setVgrow(questionList, Priority.ALWAYS);
 
         Button backBtn = createStyledButton("⬅ Back", "#9E9E9E");
         backBtn.setOnAction(e -> showQuestionManagementScreen());
 
-        root.getChildren().addAll(title, scrollPane, backBtn);
+        root.getChildren().addAll(title, questionList, backBtn);
 
         Scene scene = new Scene(root, 700, 500);
         primaryStage.setScene(scene);
     }
 
-    private void loadAllQuestions(VBox questionsBox) {
-        String sql = "SELECT * FROM questions ORDER BY id ASC";
-        try (Connection conn = DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                VBox questionBox = new VBox(8);
-                questionBox.setStyle("-fx-background-color: white; -fx-padding: 15; -fx-background-radius: 8; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 3, 0, 0, 1);");
-
-                Label idLabel = new Label("Question ID: " + rs.getInt("id"));
-                idLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #666;");
-
-                Label questionLabel = new Label("Q: " + rs.getString("question_text"));
-                questionLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
-                questionLabel.setWrapText(true);
-
-                Label option1 = new Label("1. " + rs.getString("option1"));
-                Label option2 = new Label("2. " + rs.getString("option2"));
-                Label option3 = new Label("3. " + rs.getString("option3"));
-                Label option4 = new Label("4. " + rs.getString("option4"));
-
-                option1.setStyle("-fx-text-fill: #555;");
-                option2.setStyle("-fx-text-fill: #555;");
-                option3.setStyle("-fx-text-fill: #555;");
-                option4.setStyle("-fx-text-fill: #555;");
-
-                Label correctLabel = new Label("Correct Answer: " + (rs.getInt("correct_option") + 1));
-                correctLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #4CAF50;");
-
-                questionBox.getChildren().addAll(idLabel, questionLabel, option1, option2, option3, option4, correctLabel);
-                questionsBox.getChildren().add(questionBox);
-            }
-        } catch (SQLException e) {
-            Label errorLabel = new Label("Error loading questions: " + e.getMessage());
-            errorLabel.setStyle("-fx-text-fill: #f44336;");
-            questionsBox.getChildren().add(errorLabel);
-        }
-    }
-
     private void showAddQuestionScreen() {
         VBox root = new VBox(20);
         root.setPadding(new Insets(30));
@@ -601,24 +568,29 @@ public class QuizApp extends Application {
             }
 
             int correctOption = Integer.parseInt(correctCombo.getValue());
-            if (userManager.addQuestion(
+            addBtn.setDisable(true);
+            messageLabel.setText("⏳ Adding question...");
+            asyncData.addQuestion(
                     questionArea.getText().trim(),
                     option1Field.getText().trim(),
                     option2Field.getText().trim(),
                     option3Field.getText().trim(),
                     option4Field.getText().trim(),
-                    correctOption)) {
-                messageLabel.setText("✅ Question added successfully!");
-                // Clear form
-                questionArea.clear();
-                option1Field.clear();
-                option2Field.clear();
-                option3Field.clear();
-                option4Field.clear();
-                correctCombo.setValue("1");
-            } else {
-                messageLabel.setText("❌ Failed to add question");
-            }
+                    correctOption).whenCompleteAsync((added, error) -> {
+                addBtn.setDisable(false);
+                if (error == null && added) {
+                    messageLabel.setText("✅ Question added successfully!");
+                    // Clear form
+                    questionArea.clear();
+                    option1Field.clear();
+                    option2Field.clear();
+                    option3Field.clear();
+                    option4Field.clear();
+                    correctCombo.setValue("1");
+                } else {
+                    messageLabel.setText("❌ Failed to add question");
+                }
+            }, Platform::runLater);
         });
 
         cancelBtn.setOnAction(e -> showQuestionManagementScreen());
@@ -679,12 +651,17 @@ public class QuizApp extends Application {
                 confirmAlert.setContentText("Are you sure you want to delete question ID " + questionId + "?");
 
                 if (confirmAlert.showAndWait().get() == ButtonType.OK) {
-                    if (userManager.deleteQuestion(questionId)) {
-                        messageLabel.setText("✅ Question deleted successfully!");
-                        idField.clear();
-                    } else {
-                        messageLabel.setText("❌ Question not found or delete failed");
-                    }
+                    deleteBtn.setDisable(true);
+                    messageLabel.setText("⏳ Deleting question...");
+                    asyncData.deleteQuestion(questionId).whenCompleteAsync((deleted, error) -> {
+                        deleteBtn.setDisable(false);
+                        if (error == null && deleted) {
+                            messageLabel.setText("✅ Question deleted successfully!");
+                            idField.clear();
+                        } else {
+                            messageLabel.setText("❌ Question not found or delete failed");
+                        }
+                    }, Platform::runLater);
                 }
             } catch (NumberFormatException ex) {
                 messageLabel.setText("❌ Please enter a valid number");
@@ -749,12 +726,17 @@ public class QuizApp extends Application {
             confirmAlert.setContentText("Are you sure you want to unregister student '" + username + "'?");
 
             if (confirmAlert.showAndWait().get() == ButtonType.OK) {
-                if (userManager.deleteStudent(username)) {
-                    messageLabel.setText("✅ Student '" + username + "' unregistered successfully!");
-                    usernameField.clear();
-                } else {
-                    messageLabel.setText("❌ Student not found or unregister failed");
-                }
+                unregisterBtn.setDisable(true);
+                messageLabel.setText("⏳ Unregistering student...");
+                asyncData.deleteStudent(username).whenCompleteAsync((deleted, error) -> {
+                    unregisterBtn.setDisable(false);
+                    if (error == null && deleted) {
+                        messageLabel.setText("✅ Student '" + username + "' unregistered successfully!");
+                        usernameField.clear();
+                    } else {
+                        messageLabel.setText("❌ Student not found or unregister failed");
+                    }
+                }, Platform::runLater);
             }
         });
 
@@ -776,6 +758,10 @@ public class QuizApp extends Application {
     }
 
     public static void main(String[] args) {
+        // With a quiz server the snapshot lives there; this JVM never opens a database connection
+        if (QuizServiceClient.shared() == null) {
+            QuestionBankSnapshot.installConfigured();
+        }
         launch(args);
     }
 }
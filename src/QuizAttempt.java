@@ -0,0 +1,118 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+// One completed quiz run: who took it, the course and quiz configuration at that moment,
+// and how each question went. Rows in quiz_attempts / quiz_attempt_answers are never updated.
+public class QuizAttempt {
+    private final String attemptId;
+    private final String username;
+    private final int courseId;
+    private final int questionLimit;
+    private final int timePerQuestion;
+    private final int score;
+    private final int questionCount;
+    private final long startedAt;
+    private final long finishedAt;
+    private final List<Answer> answers;
+
+    public QuizAttempt(String attemptId, String username, int courseId, int questionLimit, int timePerQuestion,
+                       int score, int questionCount, long startedAt, long finishedAt, List<Answer> answers) {
+        this.attemptId = attemptId;
+        this.username = username;
+        this.courseId = courseId;
+        this.questionLimit = questionLimit;
+        this.timePerQuestion = timePerQuestion;
+        this.score = score;
+        this.questionCount = questionCount;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.answers = Collections.unmodifiableList(answers);
+    }
+
+    public String getAttemptId() {
+        return attemptId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public int getQuestionLimit() {
+        return questionLimit;
+    }
+
+    public int getTimePerQuestion() {
+        return timePerQuestion;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    // Per-question results; empty when loaded as a summary (e.g. attempt history)
+    public List<Answer> getAnswers() {
+        return answers;
+    }
+
+    public double getPercentage() {
+        return questionCount == 0 ? 0 : score * 100.0 / questionCount;
+    }
+
+    // The result for one question of the attempt
+    public static class Answer {
+        private final int questionId;
+        private final int answer;       // 1-based choice, 0 when skipped or timed out
+        private final String outcome;   // CORRECT, WRONG, SKIPPED or TIMED_OUT
+        private final long latencyMillis;
+
+        public Answer(int questionId, int answer, String outcome, long latencyMillis) {
+            this.questionId = questionId;
+            this.answer = answer;
+            this.outcome = outcome;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public int getQuestionId() {
+            return questionId;
+        }
+
+        public int getAnswer() {
+            return answer;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QuizAttempt{" +
+                "username='" + username + '\'' +
+                ", courseId=" + courseId +
+                ", score=" + score + "/" + questionCount +
+                '}';
+    }
+}
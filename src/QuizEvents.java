@@ -0,0 +1,148 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.concurrent.CompletableFuture;
+
+// Java Flight Recorder events for database calls and the quiz lifecycle, shown under "Quiz" in JMC
+// next to GC, safepoint and thread events. They cost next to nothing unless a recording is running;
+// a continuous one can be kept with e.g.
+//   java -XX:StartFlightRecording:disk=true,maxage=2h,dumponexit=true,filename=quiz.jfr ...
+// and dumped with "jcmd <pid> JFR.dump" when an exam stalls.
+public final class QuizEvents {
+    private QuizEvents() {
+    }
+
+    // One connection borrow from ConnectionPool, from getConnection() to close()
+    @Name("quiz.DatabaseCall")
+    @Label("Database Call")
+    @Category({"Quiz", "Database"})
+    @Description("Connection borrowed from the pool, from acquisition until it was returned")
+    @StackTrace(false)
+    public static class DatabaseCall extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Rows Read")
+        public long rows;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    @Name("quiz.QuestionShown")
+    @Label("Question Shown")
+    @Category({"Quiz", "Session"})
+    @StackTrace(false)
+    public static class QuestionShown extends Event {
+        @Label("Course Id")
+        public int courseId;
+
+        @Label("Question Id")
+        public int questionId;
+
+        @Label("Question Index")
+        public int questionIndex;
+
+        @Label("Time Limit")
+        @Timespan(Timespan.MILLISECONDS)
+        public long timeLimit;
+    }
+
+    // Spans from the question being shown to the answer (or skip), so long gaps stand out on the timeline
+    @Name("quiz.AnswerSubmitted")
+    @Label("Answer Submitted")
+    @Category({"Quiz", "Session"})
+    @StackTrace(false)
+    public static class AnswerSubmitted extends Event {
+        @Label("Course Id")
+        public int courseId;
+
+        @Label("Question Id")
+        public int questionId;
+
+        @Label("Question Index")
+        public int questionIndex;
+
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Response Time")
+        @Description("Time on the question's clock, excluding pauses")
+        @Timespan(Timespan.MILLISECONDS)
+        public long responseTime;
+    }
+
+    @Name("quiz.TimerExpired")
+    @Label("Timer Expired")
+    @Category({"Quiz", "Session"})
+    @StackTrace(false)
+    public static class TimerExpired extends Event {
+        @Label("Course Id")
+        public int courseId;
+
+        @Label("Question Id")
+        public int questionId;
+
+        @Label("Question Index")
+        public int questionIndex;
+
+        @Label("Time Limit")
+        @Timespan(Timespan.MILLISECONDS)
+        public long timeLimit;
+
+        @Label("Overrun")
+        @Description("How long after the deadline the expiry was noticed; large values point at a stalled UI thread")
+        @Timespan(Timespan.MILLISECONDS)
+        public long overrun;
+    }
+
+    // Spans from the end of the quiz until its score update finished
+    @Name("quiz.QuizPersisted")
+    @Label("Quiz Persisted")
+    @Category({"Quiz", "Session"})
+    @StackTrace(false)
+    public static class QuizPersisted extends Event {
+        @Label("Course Id")
+        public int courseId;
+
+        @Label("Username")
+        public String username;
+
+        @Label("Score")
+        public int score;
+
+        @Label("Question Count")
+        public int questionCount;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    // Records a QuizPersisted event when the score update completes
+    public static void trackPersist(CompletableFuture<?> persist, int courseId, String username, int score,
+                                    int questionCount) {
+        QuizPersisted event = new QuizPersisted();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.begin();
+        persist.whenComplete((result, error) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.courseId = courseId;
+                event.username = username;
+                event.score = score;
+                event.questionCount = questionCount;
+                event.failed = error != null;
+                event.commit();
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package service;
+
+import model.Question;
+
+// What a quiz screen drives: a local QuizSession, or a quiz held by the quiz server
+// (server.RemoteQuizSession) when the application runs against one. submit, skip and expire
+// may block on the network, so UI code calls them through AsyncDataService.
+public interface QuizFlow {
+    // Starts the clock for the current question; call when it is actually shown
+    void startQuestion();
+
+    // Stops the clock, e.g. while a dialog is open (a server-held quiz keeps its own clock)
+    void pause();
+
+    void resume();
+
+    long getRemainingMillis();
+
+    boolean isExpired();
+
+    QuizSession.Outcome submit(int answer);
+
+    QuizSession.Outcome skip();
+
+    QuizSession.Outcome expire();
+
+    boolean isFinished();
+
+    // Question awaiting an answer, or null once the quiz is finished
+    Question getCurrentQuestion();
+
+    int getCurrentIndex();
+
+    int getQuestionCount();
+
+    int getScore();
+
+    double getPercentage();
+
+    int getTimePerQuestionSeconds();
+}
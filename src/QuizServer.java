@@ -0,0 +1,795 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Course;
+import model.CourseScore;
+import model.Question;
+import model.QuestionCounts;
+import model.QuestionHeader;
+import model.QuestionStats;
+import model.QuizAttempt;
+import model.QuizConfig;
+import model.ScoreEntry;
+import model.Teacher;
+import model.User;
+import service.AttemptLog;
+import service.ConnectionPool;
+import service.CourseLeaderboardService;
+import service.CourseManager;
+import service.MetricsRegistry;
+import service.QuestionBankSnapshot;
+import service.QuestionExporter;
+import service.QuestionImporter;
+import service.QuestionSampler;
+import service.QuizSession;
+import service.UserManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Multi-user quiz server: exposes the user, course and quiz-session services as an HTTP/JSON API.
+// Every request runs on its own virtual thread, and all clients share this JVM's question cache,
+// leaderboard index and connection pool instead of each opening JDBC connections to MySQL.
+//
+//   POST /api/login, /api/register, /api/logout     {username, password} -> {token, username, score}
+//   POST /api/teacher/login                          {username, password} -> {token, username}
+//   POST /api/teacher/register                       {username, password} -> {username}
+//   GET  /api/courses, /api/courses/{id}/config, /api/question-counts
+//   GET  /api/courses/{id}/questions, /api/questions, /api/questions/{id}          teachers only
+//   GET  /api/question-headers?courseId=&afterId=&limit=   teachers only; by ascending id, courseId optional
+//   POST /api/questions                              teachers only; {text, options[4], correctOption 1-4, courseId?, difficultyLevel?}
+//   POST /api/questions/{id}/delete                  teachers only
+//   POST /api/questions/import?format=csv|json&courseId=   teachers only; body is the file -> import result
+//   GET  /api/questions/export?format=CSV|JSONL|BINARY&courseId=   teachers only; the file, X-Question-Count
+//   GET  /api/leaderboard?afterScore=&afterUsername=&limit=, /api/rank?username=
+//   GET  /api/students?afterUsername=&limit=         teachers only; student usernames in order
+//   POST /api/students/delete                        teachers only; {username}
+//   GET  /api/courses/{id}/leaderboard?metric=BEST|LATEST|AVERAGE&limit=
+//   GET  /api/attempts?limit=                        the logged-in student's latest attempts, newest first
+//   GET  /api/courses/{id}/question-stats            teachers only; answer statistics from the attempt log
+//   POST /api/quizzes                                {courseId} -> {quizId, questionCount, timePerQuestion}
+//   GET  /api/quizzes/{id}/question                  current question (without the answer) and its remaining time
+//   POST /api/quizzes/{id}/answer, /skip, /finish    {answer}
+//   GET  /metrics                                    data-access metrics, Prometheus text format
+//
+// Scores are only recorded from quiz sessions held here, when they finish. Each question's clock
+// starts when it becomes current: at quiz start and after every answer, skip or timeout.
+// Authenticated calls send "Authorization: Bearer <token>". Full questions, including the correct
+// answer, are only returned to teacher tokens; students only see questions through their quiz session.
+public class QuizServer {
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Request request) throws Exception;
+    }
+
+    private static class Route {
+        final String method;
+        final Pattern pattern;
+        final Handler handler;
+
+        Route(String method, String pattern, Handler handler) {
+            this.method = method;
+            this.pattern = Pattern.compile(pattern);
+            this.handler = handler;
+        }
+    }
+
+    // Raised by handlers to answer with an error status and message
+    static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Handler result sent as a file download instead of JSON; the file is deleted once sent
+    private static class Download {
+        final Path file;
+        final String contentType;
+        final long questionCount;
+
+        Download(Path file, String contentType, long questionCount) {
+            this.file = file;
+            this.contentType = contentType;
+            this.questionCount = questionCount;
+        }
+    }
+
+    private class Request {
+        final HttpExchange exchange;
+        final Matcher path;
+        private Map<String, String> query;
+        private Map<String, Object> body;
+
+        Request(HttpExchange exchange, Matcher path) {
+            this.exchange = exchange;
+            this.path = path;
+        }
+
+        int pathInt(int group) {
+            return Integer.parseInt(path.group(group));
+        }
+
+        String pathString(int group) {
+            return path.group(group);
+        }
+
+        String query(String name) {
+            if (query == null) {
+                query = parseQuery(exchange.getRequestURI().getRawQuery());
+            }
+            return query.get(name);
+        }
+
+        int queryInt(String name, int defaultValue) {
+            String value = query(name);
+            try {
+                return value == null ? defaultValue : Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Invalid number for " + name);
+            }
+        }
+
+        Map<String, Object> body() throws IOException {
+            if (body == null) {
+                try (InputStream in = exchange.getRequestBody()) {
+                    String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    body = text.isBlank() ? new HashMap<>() : Json.parseObject(text);
+                } catch (IllegalArgumentException e) {
+                    throw new ApiException(400, "Malformed JSON: " + e.getMessage());
+                }
+            }
+            return body;
+        }
+
+        String bodyString(String name) throws IOException {
+            Object value = body().get(name);
+            if (!(value instanceof String) || ((String) value).isEmpty()) {
+                throw new ApiException(400, "Missing field " + name);
+            }
+            return (String) value;
+        }
+
+        int bodyInt(String name) throws IOException {
+            Object value = body().get(name);
+            if (!(value instanceof Number)) {
+                throw new ApiException(400, "Missing field " + name);
+            }
+            return ((Number) value).intValue();
+        }
+
+        String token() {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            if (header == null || !header.startsWith("Bearer ")) {
+                return null;
+            }
+            return header.substring("Bearer ".length()).trim();
+        }
+
+        // Logged-in student
+        String username() {
+            String username = sessions.authenticate(token(), false);
+            if (username == null) {
+                throw new ApiException(401, "Not logged in");
+            }
+            return username;
+        }
+
+        // Logged-in teacher
+        String teacher() {
+            String username = sessions.authenticate(token(), true);
+            if (username == null) {
+                throw new ApiException(sessions.authenticate(token(), false) == null ? 401 : 403, "Teacher login required");
+            }
+            return username;
+        }
+    }
+
+    private final UserManager userManager = new UserManager();
+    private final CourseManager courseManager = new CourseManager();
+    private final QuestionSampler questionSampler = new QuestionSampler(courseManager);
+    private final SessionStore sessions = new SessionStore();
+    private final List<Route> routes = new ArrayList<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer httpServer;
+
+    public QuizServer() {
+        get("/api/health", r -> Map.of("status", "ok", "activeQuizzes", sessions.getActiveQuizCount()));
+
+        post("/api/login", this::login);
+        post("/api/register", this::register);
+        post("/api/teacher/login", this::teacherLogin);
+        post("/api/teacher/register", r -> {
+            String username = r.bodyString("username");
+            if (!userManager.registerTeacher(username, r.bodyString("password"))) {
+                throw new ApiException(409, "Registration failed, the username may already exist");
+            }
+            return Map.of("username", username);
+        });
+        post("/api/logout", r -> {
+            sessions.revokeToken(r.token());
+            return Map.of("loggedOut", true);
+        });
+
+        get("/api/courses", r -> toCourseList(courseManager.getAllCourses()));
+        get("/api/courses/(\\d+)/config", r -> toJson(userManager.getQuizConfig(r.pathInt(1))));
+        get("/api/courses/(\\d+)/questions", r -> {
+            r.teacher();
+            return toQuestionList(courseManager.getQuestionsByCourse(r.pathInt(1)));
+        });
+        get("/api/questions", r -> {
+            r.teacher();
+            return toQuestionList(courseManager.getAllQuestions());
+        });
+        get("/api/questions/(\\d+)", r -> {
+            r.teacher();
+            Question question = courseManager.getQuestionById(r.pathInt(1));
+            if (question == null) {
+                throw new ApiException(404, "Unknown question " + r.pathInt(1));
+            }
+            return toJson(question, true);
+        });
+        post("/api/questions", this::addQuestion);
+        post("/api/questions/(\\d+)/delete", r -> {
+            r.teacher();
+            if (!userManager.deleteQuestion(r.pathInt(1))) {
+                throw new ApiException(404, "Unknown question " + r.pathInt(1));
+            }
+            return Map.of("deleted", true);
+        });
+        get("/api/question-headers", r -> {
+            r.teacher();
+            Integer courseId = r.query("courseId") == null ? null : r.queryInt("courseId", 0);
+            int limit = Math.min(Math.max(r.queryInt("limit", 100), 1), MAX_PAGE_SIZE);
+            List<Object> rows = new ArrayList<>();
+            for (QuestionHeader header : courseManager.getQuestionHeaderPage(courseId, r.queryInt("afterId", 0), limit)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", header.getQuestionId());
+                row.put("courseId", header.getCourseId());
+                row.put("difficultyLevel", header.getDifficultyLevel());
+                rows.add(row);
+            }
+            return rows;
+        });
+        get("/api/question-counts", r -> {
+            List<Object> counts = new ArrayList<>();
+            for (QuestionCounts c : courseManager.getQuestionCountsByCourse().values()) {
+                counts.add(toJson(c));
+            }
+            return counts;
+        });
+
+        get("/api/leaderboard", this::leaderboard);
+        get("/api/courses/(\\d+)/leaderboard", this::courseLeaderboard);
+        get("/api/rank", r -> {
+            String username = r.query("username");
+            if (username == null) {
+                throw new ApiException(400, "Missing parameter username");
+            }
+            return Map.of("username", username, "rank", userManager.getRank(username));
+        });
+        get("/api/students", r -> {
+            r.teacher();
+            int limit = Math.min(Math.max(r.queryInt("limit", 100), 1), MAX_PAGE_SIZE);
+            return new ArrayList<Object>(userManager.getStudentsPage(r.query("afterUsername"), limit));
+        });
+        post("/api/students/delete", r -> {
+            r.teacher();
+            String username = r.bodyString("username");
+            if (!userManager.deleteStudent(username)) {
+                throw new ApiException(404, "Unknown student " + username);
+            }
+            return Map.of("deleted", true);
+        });
+        get("/api/attempts", r -> {
+            int limit = Math.min(Math.max(r.queryInt("limit", 20), 1), MAX_PAGE_SIZE);
+            List<Object> rows = new ArrayList<>();
+            for (QuizAttempt attempt : AttemptLog.getInstance().getAttemptHistory(r.username(), limit)) {
+                rows.add(toJson(attempt));
+            }
+            return rows;
+        });
+        get("/api/courses/(\\d+)/question-stats", r -> {
+            r.teacher();
+            List<Object> rows = new ArrayList<>();
+            for (QuestionStats stats : AttemptLog.getInstance().getQuestionStats(r.pathInt(1))) {
+                rows.add(toJson(stats));
+            }
+            return rows;
+        });
+        post("/api/questions/import", this::importQuestions);
+        get("/api/questions/export", this::exportQuestions);
+
+        post("/api/quizzes", this::startQuiz);
+        get("/api/quizzes/([\\w-]+)/question", this::currentQuestion);
+        post("/api/quizzes/([\\w-]+)/answer", r -> {
+            QuizSession session = quiz(r).getSession();
+            int answer = r.bodyInt("answer");
+            synchronized (session) {
+                return outcome(session, session.submit(answer));
+            }
+        });
+        post("/api/quizzes/([\\w-]+)/skip", r -> {
+            QuizSession session = quiz(r).getSession();
+            synchronized (session) {
+                return outcome(session, session.skip());
+            }
+        });
+        post("/api/quizzes/([\\w-]+)/finish", this::finishQuiz);
+    }
+
+    private void get(String pattern, Handler handler) {
+        routes.add(new Route("GET", pattern, handler));
+    }
+
+    private void post(String pattern, Handler handler) {
+        routes.add(new Route("POST", pattern, handler));
+    }
+
+    public void start(int port) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/api/", this::dispatch);
+        httpServer.createContext("/metrics", this::metrics);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        System.out.println("🌐 Quiz server listening on port " + port);
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(1);
+        }
+        executor.shutdown();
+        sessions.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException {
+        QuestionBankSnapshot.installConfigured();
+        QuizServer server = new QuizServer();
+        server.start(Integer.getInteger("quiz.server.port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            ConnectionPool.getInstance().shutdown();
+        }, "quiz-server-shutdown"));
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            boolean pathMatched = false;
+            for (Route route : routes) {
+                Matcher matcher = route.pattern.matcher(path);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                pathMatched = true;
+                if (route.method.equals(exchange.getRequestMethod())) {
+                    Object result = route.handler.handle(new Request(exchange, matcher));
+                    if (result instanceof Download) {
+                        sendFile(exchange, (Download) result);
+                    } else {
+                        send(exchange, 200, result);
+                    }
+                    return;
+                }
+            }
+            throw pathMatched ? new ApiException(405, "Method not allowed") : new ApiException(404, "Not found");
+        } catch (ApiException e) {
+            send(exchange, e.status, Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            send(exchange, 409, Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.out.println("❌ Server error on " + exchange.getRequestURI() + ": " + e.getMessage());
+            send(exchange, 500, Map.of("error", "Internal server error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        try {
+            byte[] bytes = MetricsRegistry.getInstance().scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = Json.write(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendFile(HttpExchange exchange, Download download) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", download.contentType);
+            exchange.getResponseHeaders().set("X-Question-Count", String.valueOf(download.questionCount));
+            exchange.sendResponseHeaders(200, Files.size(download.file));
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(download.file, out);
+            }
+        } finally {
+            Files.deleteIfExists(download.file);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Handlers
+
+    private Object login(Request r) throws IOException {
+        User user = userManager.login(r.bodyString("username"), r.bodyString("password"));
+        if (user == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        return loggedIn(user);
+    }
+
+    private Object register(Request r) throws IOException {
+        String username = r.bodyString("username");
+        if (!userManager.register(username, r.bodyString("password"))) {
+            throw new ApiException(409, "Registration failed, the username may already exist");
+        }
+        return loggedIn(new User(username, null, 0));
+    }
+
+    private Object teacherLogin(Request r) throws IOException {
+        Teacher teacher = userManager.teacherLogin(r.bodyString("username"), r.bodyString("password"));
+        if (teacher == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", sessions.issueToken(teacher.getUsername(), true));
+        result.put("username", teacher.getUsername());
+        return result;
+    }
+
+    // Without a courseId the question goes in unassigned, like UserManager.addQuestion
+    private Object addQuestion(Request r) throws IOException {
+        r.teacher();
+        String text = r.bodyString("text");
+        Object optionList = r.body().get("options");
+        if (!(optionList instanceof List) || ((List<?>) optionList).size() != 4) {
+            throw new ApiException(400, "options must list 4 answers");
+        }
+        String[] options = new String[4];
+        for (int i = 0; i < options.length; i++) {
+            Object option = ((List<?>) optionList).get(i);
+            if (!(option instanceof String) || ((String) option).isEmpty()) {
+                throw new ApiException(400, "options must list 4 answers");
+            }
+            options[i] = (String) option;
+        }
+        int correctOption = r.bodyInt("correctOption");
+        if (correctOption < 1 || correctOption > 4) {
+            throw new ApiException(400, "correctOption must be 1-4");
+        }
+        Object courseId = r.body().get("courseId");
+        boolean added;
+        if (courseId == null) {
+            added = userManager.addQuestion(text, options[0], options[1], options[2], options[3], correctOption);
+        } else {
+            Object difficulty = r.body().get("difficultyLevel");
+            added = courseManager.addQuestionToCourse(r.bodyInt("courseId"), text, options[0], options[1], options[2],
+                    options[3], correctOption, difficulty instanceof String ? (String) difficulty : "Medium");
+        }
+        if (!added) {
+            throw new ApiException(500, "Failed to add question");
+        }
+        return Map.of("added", true);
+    }
+
+    private Map<String, Object> loggedIn(User user) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", sessions.issueToken(user.getUsername(), false));
+        result.put("username", user.getUsername());
+        result.put("score", user.getScore());
+        return result;
+    }
+
+    private Object leaderboard(Request r) {
+        int limit = Math.min(Math.max(r.queryInt("limit", 100), 1), MAX_PAGE_SIZE);
+        String afterUsername = r.query("afterUsername");
+        List<ScoreEntry> page = userManager.getLeaderboardPage(r.queryInt("afterScore", 0), afterUsername, limit);
+        List<Object> rows = new ArrayList<>(page.size());
+        for (ScoreEntry entry : page) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", entry.getRank());
+            row.put("username", entry.getUsername());
+            row.put("score", entry.getScore());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Object courseLeaderboard(Request r) {
+        CourseLeaderboardService.Metric metric;
+        try {
+            metric = CourseLeaderboardService.Metric.valueOf(r.query("metric") == null ? "BEST" : r.query("metric"));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown metric " + r.query("metric"));
+        }
+        int limit = Math.max(r.queryInt("limit", 100), 1);
+        List<Object> rows = new ArrayList<>();
+        int rank = 1;
+        for (CourseScore score : CourseLeaderboardService.getInstance().getTop(r.pathInt(1), metric, limit)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", rank++);
+            row.put("username", score.getUsername());
+            row.put("bestScore", score.getBestScore());
+            row.put("latestScore", score.getLatestScore());
+            row.put("attempts", score.getAttempts());
+            row.put("totalScore", score.getTotalScore());
+            row.put("averageScore", score.getAverageScore());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Object startQuiz(Request r) throws IOException {
+        String username = r.username();
+        int courseId = r.bodyInt("courseId");
+        Course course = courseManager.getCourseById(courseId);
+        if (course == null) {
+            throw new ApiException(404, "Unknown course " + courseId);
+        }
+        QuizConfig config = userManager.getQuizConfig(courseId);
+        List<Question> questions = questionSampler.sample(courseId, config.getQuestionLimit());
+        if (questions.isEmpty()) {
+            throw new ApiException(409, "No questions available for " + course.getCourseName());
+        }
+
+        QuizSession session = new QuizSession(questions, config.getTimePerQuestion());
+        session.startQuestion();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("quizId", sessions.startQuiz(username, course, config, session));
+        result.put("courseName", course.getCourseName());
+        result.put("questionCount", session.getQuestionCount());
+        result.put("timePerQuestion", session.getTimePerQuestionSeconds());
+        return result;
+    }
+
+    private SessionStore.QuizEntry quiz(Request r) {
+        SessionStore.QuizEntry entry = sessions.getQuiz(r.pathString(1), r.username());
+        if (entry == null) {
+            throw new ApiException(404, "Unknown quiz");
+        }
+        return entry;
+    }
+
+    // Time runs on the server: a question whose deadline passed is recorded as timed out
+    // and the next one is served. Answering a finished quiz is reported as 409.
+    private Object currentQuestion(Request r) {
+        QuizSession session = quiz(r).getSession();
+        synchronized (session) {
+            if (session.isExpired()) {
+                session.expire();
+                startNextQuestion(session);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("finished", session.isFinished());
+            result.put("score", session.getScore());
+            if (session.isFinished()) {
+                return result;
+            }
+            Question question = session.getCurrentQuestion();
+            result.put("index", session.getCurrentIndex());
+            result.put("questionCount", session.getQuestionCount());
+            result.put("remainingMillis", session.getRemainingMillis());
+            result.put("question", toJson(question, false));
+            return result;
+        }
+    }
+
+    // The next question's deadline runs from the moment the previous one is recorded, whether or
+    // not the client ever asks for it
+    private static void startNextQuestion(QuizSession session) {
+        if (!session.isFinished()) {
+            session.startQuestion();
+        }
+    }
+
+    // Called with the session locked, right after the answer or skip was recorded
+    private Object outcome(QuizSession session, QuizSession.Outcome outcome) {
+        startNextQuestion(session);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("outcome", outcome.name());
+        result.put("score", session.getScore());
+        result.put("finished", session.isFinished());
+        return result;
+    }
+
+    private Object finishQuiz(Request r) {
+        // Removed atomically so a repeated finish cannot record the attempt twice
+        SessionStore.QuizEntry entry = sessions.endQuiz(r.pathString(1), r.username());
+        if (entry == null) {
+            throw new ApiException(404, "Unknown quiz");
+        }
+        QuizSession session = entry.getSession();
+
+        // Unanswered questions simply score nothing
+        int score = session.getScore();
+        userManager.updateUserScore(new User(entry.getUsername(), null, score), score);
+        AttemptLog.getInstance().record(entry.getUsername(), entry.getCourse().getCourseId(), entry.getConfig(), session);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("courseName", entry.getCourse().getCourseName());
+        result.put("score", score);
+        result.put("questionCount", session.getQuestionCount());
+        result.put("percentage", session.getPercentage());
+        return result;
+    }
+
+    // The file is streamed through the importer as it arrives, so memory stays flat for any upload
+    private Object importQuestions(Request r) throws IOException {
+        r.teacher();
+        String format = r.query("format") == null ? "" : r.query("format").toLowerCase(Locale.ROOT);
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new ApiException(400, "Parameter format must be csv or json");
+        }
+        Integer courseId = r.query("courseId") == null ? null : r.queryInt("courseId", 0);
+        QuestionImporter importer = new QuestionImporter();
+        QuestionImporter.ImportResult result;
+        try (Reader reader = new BufferedReader(new InputStreamReader(r.exchange.getRequestBody(), StandardCharsets.UTF_8), 1 << 16)) {
+            result = format.equals("csv")
+                    ? importer.importCsv(reader, courseId, null)
+                    : importer.importJson(reader, courseId, null);
+        } catch (IOException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("recordsRead", result.getRecordsRead());
+        map.put("imported", result.getImported());
+        map.put("rejected", result.getRejected());
+        map.put("errors", result.getErrors());
+        map.put("elapsedMillis", result.getElapsedMillis());
+        return map;
+    }
+
+    // Exported to a temporary file first, so a failed export is reported as an error instead of a
+    // truncated download, and the response carries the question count and length up front
+    private Object exportQuestions(Request r) throws IOException {
+        r.teacher();
+        QuestionExporter.Format format;
+        try {
+            format = QuestionExporter.Format.valueOf(String.valueOf(r.query("format")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Parameter format must be CSV, JSONL or BINARY");
+        }
+        Integer courseId = r.query("courseId") == null ? null : r.queryInt("courseId", 0);
+        Path file = Files.createTempFile("quiz-export", format.getExtension());
+        try {
+            QuestionExporter.ExportResult result = new QuestionExporter().exportFile(file, format, courseId);
+            return new Download(file, format == QuestionExporter.Format.BINARY ? "application/octet-stream"
+                    : "text/plain; charset=utf-8", result.getQuestionCount());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    // JSON shapes
+
+    private static List<Object> toCourseList(List<Course> courses) {
+        List<Object> list = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("courseId", course.getCourseId());
+            map.put("courseName", course.getCourseName());
+            map.put("courseCode", course.getCourseCode());
+            map.put("description", course.getDescription());
+            list.add(map);
+        }
+        return list;
+    }
+
+    // Teacher views only: includes the correct answer
+    private static List<Object> toQuestionList(List<Question> questions) {
+        List<Object> list = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            list.add(toJson(question, true));
+        }
+        return list;
+    }
+
+    private static Map<String, Object> toJson(Question question, boolean includeAnswer) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", question.getQuestionId());
+        map.put("text", question.getText());
+        map.put("options", question.getOptions());
+        if (includeAnswer) {
+            map.put("correctIndex", question.getCorrectIndex());
+        }
+        map.put("courseId", question.getCourseId());
+        map.put("difficultyLevel", question.getDifficultyLevel());
+        return map;
+    }
+
+    private static Map<String, Object> toJson(QuizConfig config) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("courseId", config.getCourseId());
+        map.put("questionLimit", config.getQuestionLimit());
+        map.put("timePerQuestion", config.getTimePerQuestion());
+        map.put("active", config.isActive());
+        return map;
+    }
+
+    private static Map<String, Object> toJson(QuestionCounts counts) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("courseId", counts.getCourseId());
+        map.put("total", counts.getTotal());
+        map.put("byDifficulty", counts.getByDifficulty());
+        return map;
+    }
+
+    private static Map<String, Object> toJson(QuizAttempt attempt) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("attemptId", attempt.getAttemptId());
+        map.put("courseId", attempt.getCourseId());
+        map.put("score", attempt.getScore());
+        map.put("questionCount", attempt.getQuestionCount());
+        map.put("percentage", attempt.getPercentage());
+        map.put("questionLimit", attempt.getQuestionLimit());
+        map.put("timePerQuestion", attempt.getTimePerQuestion());
+        map.put("startedAt", attempt.getStartedAt());
+        map.put("finishedAt", attempt.getFinishedAt());
+        return map;
+    }
+
+    private static Map<String, Object> toJson(QuestionStats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("questionId", stats.getQuestionId());
+        map.put("timesAsked", stats.getTimesAsked());
+        map.put("timesCorrect", stats.getTimesCorrect());
+        map.put("timesUnanswered", stats.getTimesUnanswered());
+        map.put("correctRate", stats.getCorrectRate());
+        map.put("averageLatencyMillis", stats.getAverageLatencyMillis());
+        return map;
+    }
+}
@@ -0,0 +1,446 @@
+package server;
+
+import model.Course;
+import model.CourseScore;
+import model.Question;
+import model.QuestionCounts;
+import model.QuestionHeader;
+import model.QuizConfig;
+import model.ScoreEntry;
+import model.Teacher;
+import model.User;
+import service.CourseLeaderboardService;
+import service.QuestionExporter;
+import service.QuestionImporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Client for QuizServer's HTTP/JSON API, returning the same model objects as the JDBC services.
+// Calls block, so UI code should go through AsyncDataService, which routes here when the
+// application is started with -Dquiz.server.url=http://host:8080.
+public class QuizServiceClient {
+    private static final QuizServiceClient SHARED = create(System.getProperty("quiz.server.url"));
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private volatile String token;
+
+    public QuizServiceClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private static QuizServiceClient create(String baseUrl) {
+        return baseUrl == null || baseUrl.isBlank() ? null : new QuizServiceClient(baseUrl);
+    }
+
+    // Client for the configured server, or null when the application talks to MySQL directly
+    public static QuizServiceClient shared() {
+        return SHARED;
+    }
+
+    public boolean isLoggedIn() {
+        return token != null;
+    }
+
+    // Users and scores
+
+    public User login(String username, String password) {
+        try {
+            Map<String, Object> result = postObject("/api/login", credentials(username, password));
+            token = (String) result.get("token");
+            return new User(username, password, asInt(result.get("score")));
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 401) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    // Teacher session; needed for the full-question calls (getQuestion, getQuestionHeaderPage, ...)
+    public Teacher teacherLogin(String username, String password) {
+        try {
+            Map<String, Object> result = postObject("/api/teacher/login", credentials(username, password));
+            token = (String) result.get("token");
+            return new Teacher(username, password);
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 401) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    public boolean register(String username, String password) {
+        try {
+            postObject("/api/register", credentials(username, password));
+            return true;
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 409) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public boolean registerTeacher(String username, String password) {
+        try {
+            postObject("/api/teacher/register", credentials(username, password));
+            return true;
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 409) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public void logout() {
+        if (token != null) {
+            postObject("/api/logout", Map.of());
+            token = null;
+        }
+    }
+
+    public List<ScoreEntry> getLeaderboardPage(int afterScore, String afterUsername, int limit) {
+        String path = "/api/leaderboard?limit=" + limit;
+        if (afterUsername != null) {
+            path += "&afterScore=" + afterScore + "&afterUsername=" + URLEncoder.encode(afterUsername, StandardCharsets.UTF_8);
+        }
+        List<ScoreEntry> page = new ArrayList<>();
+        for (Object row : getArray(path)) {
+            Map<?, ?> map = (Map<?, ?>) row;
+            page.add(new ScoreEntry(asInt(map.get("rank")), (String) map.get("username"), asInt(map.get("score"))));
+        }
+        return page;
+    }
+
+    // Student usernames in order, after afterUsername (null for the first page); teacher session
+    public List<String> getStudentsPage(String afterUsername, int limit) {
+        String path = "/api/students?limit=" + limit;
+        if (afterUsername != null) {
+            path += "&afterUsername=" + URLEncoder.encode(afterUsername, StandardCharsets.UTF_8);
+        }
+        List<String> page = new ArrayList<>();
+        for (Object username : getArray(path)) {
+            page.add((String) username);
+        }
+        return page;
+    }
+
+    // False if there is no such student
+    public boolean deleteStudent(String username) {
+        try {
+            postObject("/api/students/delete", Map.of("username", username));
+            return true;
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public List<CourseScore> getCourseLeaderboard(int courseId, CourseLeaderboardService.Metric metric, int limit) {
+        List<CourseScore> ranking = new ArrayList<>();
+        for (Object row : getArray("/api/courses/" + courseId + "/leaderboard?metric=" + metric.name() + "&limit=" + limit)) {
+            Map<?, ?> map = (Map<?, ?>) row;
+            ranking.add(new CourseScore(courseId, (String) map.get("username"), asInt(map.get("bestScore")),
+                    asInt(map.get("latestScore")), asInt(map.get("attempts")), ((Number) map.get("totalScore")).longValue()));
+        }
+        return ranking;
+    }
+
+    public int getRank(String username) {
+        return asInt(getObject("/api/rank?username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)).get("rank"));
+    }
+
+    // Courses and questions. Full questions need a teacher login.
+
+    public List<Course> getAllCourses() {
+        List<Course> courses = new ArrayList<>();
+        for (Object row : getArray("/api/courses")) {
+            Map<?, ?> map = (Map<?, ?>) row;
+            courses.add(new Course(asInt(map.get("courseId")), (String) map.get("courseName"),
+                    (String) map.get("courseCode"), (String) map.get("description")));
+        }
+        return courses;
+    }
+
+    public List<Question> getQuestionsByCourse(int courseId) {
+        return toQuestions(getArray("/api/courses/" + courseId + "/questions"));
+    }
+
+    public List<Question> getAllQuestions() {
+        return toQuestions(getArray("/api/questions"));
+    }
+
+    public List<QuestionHeader> getQuestionHeaderPage(Integer courseId, int afterQuestionId, int limit) {
+        String path = "/api/question-headers?afterId=" + afterQuestionId + "&limit=" + limit;
+        if (courseId != null) {
+            path += "&courseId=" + courseId;
+        }
+        List<QuestionHeader> headers = new ArrayList<>();
+        for (Object row : getArray(path)) {
+            Map<?, ?> map = (Map<?, ?>) row;
+            headers.add(new QuestionHeader(asInt(map.get("id")), asInt(map.get("courseId")), (String) map.get("difficultyLevel")));
+        }
+        return headers;
+    }
+
+    // Full question, or null if it was deleted
+    public Question getQuestion(int questionId) {
+        try {
+            return toQuestion(getObject("/api/questions/" + questionId));
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    // Question edits need a teacher session. courseId null adds the question without a course.
+    public boolean addQuestion(Integer courseId, String text, String[] options, int correctOption, String difficulty) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("text", text);
+        body.put("options", List.of(options));
+        body.put("correctOption", correctOption);
+        if (courseId != null) {
+            body.put("courseId", courseId);
+            body.put("difficultyLevel", difficulty);
+        }
+        postObject("/api/questions", body);
+        return true;
+    }
+
+    // False if the question was already gone
+    public boolean deleteQuestion(int questionId) {
+        try {
+            postObject("/api/questions/" + questionId + "/delete", Map.of());
+            return true;
+        } catch (QuizServiceException e) {
+            if (e.getStatus() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public QuizConfig getQuizConfig(int courseId) {
+        Map<String, Object> map = getObject("/api/courses/" + courseId + "/config");
+        QuizConfig config = new QuizConfig(asInt(map.get("courseId")), asInt(map.get("questionLimit")),
+                asInt(map.get("timePerQuestion")));
+        config.setActive(Boolean.TRUE.equals(map.get("active")));
+        return config;
+    }
+
+    public Map<Integer, QuestionCounts> getQuestionCountsByCourse() {
+        Map<Integer, QuestionCounts> counts = new HashMap<>();
+        for (Object row : getArray("/api/question-counts")) {
+            Map<?, ?> map = (Map<?, ?>) row;
+            Map<String, Integer> byDifficulty = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) map.get("byDifficulty")).entrySet()) {
+                byDifficulty.put((String) entry.getKey(), asInt(entry.getValue()));
+            }
+            int courseId = asInt(map.get("courseId"));
+            counts.put(courseId, new QuestionCounts(courseId, byDifficulty));
+        }
+        return counts;
+    }
+
+    // Question import and export, run on the server (teacher session)
+
+    // Uploads the file as is; the format follows its extension like QuestionImporter.importFile
+    public QuestionImporter.ImportResult importQuestions(Path file, Integer defaultCourseId) throws IOException {
+        String path = "/api/questions/import?format=" + (QuestionImporter.isCsv(file) ? "csv" : "json")
+                + (defaultCourseId == null ? "" : "&courseId=" + defaultCourseId);
+        Map<String, Object> result = Json.parseObject(send(request(path)
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofFile(file))));
+        List<String> errors = new ArrayList<>();
+        for (Object error : (List<?>) result.get("errors")) {
+            errors.add(String.valueOf(error));
+        }
+        return new QuestionImporter.ImportResult(asLong(result.get("recordsRead")), asLong(result.get("imported")),
+                asLong(result.get("rejected")), errors, asLong(result.get("elapsedMillis")));
+    }
+
+    // Downloads to a temporary file next to file and moves it into place, like QuestionExporter.exportFile
+    public QuestionExporter.ExportResult exportQuestions(Path file, QuestionExporter.Format format, Integer courseId)
+            throws IOException {
+        long start = System.nanoTime();
+        String path = "/api/questions/export?format=" + format.name()
+                + (courseId == null ? "" : "&courseId=" + courseId);
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            HttpResponse<InputStream> response = http.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream in = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw error(response.statusCode(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long questionCount = response.headers().firstValueAsLong("X-Question-Count").orElse(-1);
+            long bytes = Files.size(tmp);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new QuestionExporter.ExportResult(questionCount, bytes, (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QuizServiceException(0, "Interrupted while calling the quiz server");
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Server-side quiz flow. Responses are the JSON objects documented on QuizServer.
+
+    public Map<String, Object> startQuiz(int courseId) {
+        return postObject("/api/quizzes", Map.of("courseId", courseId));
+    }
+
+    // Current question under "question" (without the answer), or finished=true
+    public Map<String, Object> getCurrentQuestion(String quizId) {
+        return getObject("/api/quizzes/" + quizId + "/question");
+    }
+
+    public Map<String, Object> submitAnswer(String quizId, int answer) {
+        return postObject("/api/quizzes/" + quizId + "/answer", Map.of("answer", answer));
+    }
+
+    public Map<String, Object> skipQuestion(String quizId) {
+        return postObject("/api/quizzes/" + quizId + "/skip", Map.of());
+    }
+
+    public Map<String, Object> finishQuiz(String quizId) {
+        return postObject("/api/quizzes/" + quizId + "/finish", Map.of());
+    }
+
+    // Builds a Question from the "question" field of getCurrentQuestion (correct answer unknown)
+    public static Question toQuestion(Map<?, ?> map) {
+        List<?> optionList = (List<?>) map.get("options");
+        String[] options = new String[optionList.size()];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = (String) optionList.get(i);
+        }
+        Object correct = map.get("correctIndex");
+        return new Question(asInt(map.get("id")), (String) map.get("text"), options,
+                correct == null ? 0 : asInt(correct), asInt(map.get("courseId")), (String) map.get("difficultyLevel"));
+    }
+
+    // Transport
+
+    private static Map<String, Object> credentials(String username, String password) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("username", username);
+        body.put("password", password);
+        return body;
+    }
+
+    private static List<Question> toQuestions(List<Object> rows) {
+        List<Question> questions = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            questions.add(toQuestion((Map<?, ?>) row));
+        }
+        return questions;
+    }
+
+    private static int asInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private Map<String, Object> getObject(String path) {
+        return Json.parseObject(send(request(path).GET()));
+    }
+
+    private List<Object> getArray(String path) {
+        return Json.parseArray(send(request(path).GET()));
+    }
+
+    private Map<String, Object> postObject(String path, Map<String, ?> body) {
+        return Json.parseObject(send(request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(Json.write(body), StandardCharsets.UTF_8))));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        String current = token;
+        if (current != null) {
+            builder.header("Authorization", "Bearer " + current);
+        }
+        return builder;
+    }
+
+    private String send(HttpRequest.Builder builder) {
+        try {
+            HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() != 200) {
+                throw error(response.statusCode(), response.body());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new QuizServiceException(0, "Quiz server unreachable: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QuizServiceException(0, "Interrupted while calling the quiz server");
+        }
+    }
+
+    private static QuizServiceException error(int status, String body) {
+        String message;
+        try {
+            message = String.valueOf(Json.parseObject(body).get("error"));
+        } catch (IllegalArgumentException e) {
+            message = body;
+        }
+        return new QuizServiceException(status, message);
+    }
+
+    public static class QuizServiceException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public QuizServiceException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        // HTTP status, or 0 when the server could not be reached
+        public int getStatus() {
+            return status;
+        }
+    }
+}
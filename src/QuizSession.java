@@ -0,0 +1,228 @@
+package service;
+
+import model.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// UI-agnostic quiz flow: question order, per-question deadline, answers, skips and score.
+// The console quizzes and the JavaFX controllers are thin adapters that display
+// getCurrentQuestion() and feed user actions back in; nothing here touches I/O.
+// Methods are synchronized so a session can be driven from any thread (e.g. a server).
+// Every question shown, answered, skipped or expired is also emitted as a JFR event (see QuizEvents).
+public class QuizSession implements QuizFlow {
+    public enum Outcome { CORRECT, WRONG, SKIPPED, TIMED_OUT }
+
+    private final List<Question> questions;
+    private final long timePerQuestionNanos;
+    private final LongSupplier clock;
+
+    private final Outcome[] outcomes;
+    private final int[] answers;        // 1-based answer, 0 when none given
+    private final long[] latencyNanos;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    private int currentIndex;
+    private int score;
+    private long questionStartedAt;
+    private long pausedAt = -1;
+    private boolean questionStarted;
+    private QuizEvents.AnswerSubmitted answerEvent;
+
+    public QuizSession(List<Question> questions, int timePerQuestionSeconds) {
+        this(questions, timePerQuestionSeconds, System::nanoTime);
+    }
+
+    // nanoClock is injectable so sessions can be driven in tests and load simulations
+    public QuizSession(List<Question> questions, int timePerQuestionSeconds, LongSupplier nanoClock) {
+        this.questions = Collections.unmodifiableList(new ArrayList<>(questions));
+        this.timePerQuestionNanos = timePerQuestionSeconds * 1_000_000_000L;
+        this.clock = nanoClock;
+        this.outcomes = new Outcome[questions.size()];
+        this.answers = new int[questions.size()];
+        this.latencyNanos = new long[questions.size()];
+    }
+
+    // Starts the clock for the current question; call when it is actually shown
+    public synchronized void startQuestion() {
+        if (isFinished()) {
+            return;
+        }
+        questionStartedAt = clock.getAsLong();
+        pausedAt = -1;
+        questionStarted = true;
+
+        Question question = questions.get(currentIndex);
+        QuizEvents.QuestionShown shown = new QuizEvents.QuestionShown();
+        if (shown.shouldCommit()) {
+            shown.courseId = question.getCourseId();
+            shown.questionId = question.getQuestionId();
+            shown.questionIndex = currentIndex;
+            shown.timeLimit = timePerQuestionNanos / 1_000_000;
+            shown.commit();
+        }
+        answerEvent = new QuizEvents.AnswerSubmitted();
+        answerEvent.begin();
+    }
+
+    // Stops the clock, e.g. while a dialog is open
+    public synchronized void pause() {
+        if (questionStarted && pausedAt < 0) {
+            pausedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized void resume() {
+        if (pausedAt >= 0) {
+            questionStartedAt += clock.getAsLong() - pausedAt;
+            pausedAt = -1;
+        }
+    }
+
+    private long elapsedNanos() {
+        if (!questionStarted) {
+            return 0;
+        }
+        long now = pausedAt >= 0 ? pausedAt : clock.getAsLong();
+        return now - questionStartedAt;
+    }
+
+    public synchronized long getRemainingMillis() {
+        return Math.max(0, (timePerQuestionNanos - elapsedNanos()) / 1_000_000);
+    }
+
+    public synchronized boolean isExpired() {
+        return questionStarted && elapsedNanos() >= timePerQuestionNanos;
+    }
+
+    // Answers the current question (1-based option); late answers count as timed out
+    public synchronized Outcome submit(int answer) {
+        if (isFinished()) {
+            throw new IllegalStateException("Quiz session is already finished");
+        }
+        if (isExpired()) {
+            return record(Outcome.TIMED_OUT, 0);
+        }
+        Question question = questions.get(currentIndex);
+        if (question.checkAnswer(answer)) {
+            score++;
+            return record(Outcome.CORRECT, answer);
+        }
+        return record(Outcome.WRONG, answer);
+    }
+
+    public synchronized Outcome skip() {
+        if (isFinished()) {
+            throw new IllegalStateException("Quiz session is already finished");
+        }
+        return record(Outcome.SKIPPED, 0);
+    }
+
+    // The current question's time ran out without an answer
+    public synchronized Outcome expire() {
+        if (isFinished()) {
+            throw new IllegalStateException("Quiz session is already finished");
+        }
+        return record(Outcome.TIMED_OUT, 0);
+    }
+
+    private Outcome record(Outcome outcome, int answer) {
+        long elapsed = elapsedNanos();
+        outcomes[currentIndex] = outcome;
+        answers[currentIndex] = answer;
+        latencyNanos[currentIndex] = Math.min(elapsed, timePerQuestionNanos);
+        emitEvents(outcome, elapsed);
+        currentIndex++;
+        questionStarted = false;
+        pausedAt = -1;
+        return outcome;
+    }
+
+    private void emitEvents(Outcome outcome, long elapsed) {
+        Question question = questions.get(currentIndex);
+        QuizEvents.AnswerSubmitted submitted = answerEvent;
+        answerEvent = null;
+        if (submitted == null) { // answered without startQuestion(); recorded as an instant
+            submitted = new QuizEvents.AnswerSubmitted();
+            submitted.begin();
+        }
+        submitted.end();
+        if (submitted.shouldCommit()) {
+            submitted.courseId = question.getCourseId();
+            submitted.questionId = question.getQuestionId();
+            submitted.questionIndex = currentIndex;
+            submitted.outcome = outcome.name();
+            submitted.responseTime = latencyNanos[currentIndex] / 1_000_000;
+            submitted.commit();
+        }
+        if (outcome == Outcome.TIMED_OUT) {
+            QuizEvents.TimerExpired expired = new QuizEvents.TimerExpired();
+            if (expired.shouldCommit()) {
+                expired.courseId = question.getCourseId();
+                expired.questionId = question.getQuestionId();
+                expired.questionIndex = currentIndex;
+                expired.timeLimit = timePerQuestionNanos / 1_000_000;
+                expired.overrun = Math.max(0, elapsed - timePerQuestionNanos) / 1_000_000;
+                expired.commit();
+            }
+        }
+    }
+
+    // Whether the clock is running for the current question
+    public synchronized boolean isQuestionStarted() {
+        return questionStarted;
+    }
+
+    public synchronized boolean isFinished() {
+        return currentIndex >= questions.size();
+    }
+
+    // Question awaiting an answer, or null once the session is finished
+    public synchronized Question getCurrentQuestion() {
+        return isFinished() ? null : questions.get(currentIndex);
+    }
+
+    public synchronized int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public int getQuestionCount() {
+        return questions.size();
+    }
+
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    public synchronized int getScore() {
+        return score;
+    }
+
+    public synchronized double getPercentage() {
+        return questions.isEmpty() ? 0 : score * 100.0 / questions.size();
+    }
+
+    // Wall-clock time the session was created
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public int getTimePerQuestionSeconds() {
+        return (int) (timePerQuestionNanos / 1_000_000_000L);
+    }
+
+    // Per-question results, available once a question has been answered, skipped or expired
+    public synchronized Outcome getOutcome(int index) {
+        return outcomes[index];
+    }
+
+    public synchronized int getAnswer(int index) {
+        return answers[index];
+    }
+
+    public synchronized long getLatencyMillis(int index) {
+        return latencyNanos[index] / 1_000_000;
+    }
+}
@@ -0,0 +1,33 @@
+import javafx.css.PseudoClass;
+import javafx.scene.control.Label;
+
+// Countdown shown in the quiz header. Updated several times a second, so it only touches the text
+// when the displayed second changes and switches colour through the :warning and :critical
+// pseudo-classes of quiz.css rather than new inline styles.
+public final class QuizTimerLabel extends Label {
+    private static final PseudoClass WARNING = PseudoClass.getPseudoClass("warning");
+    private static final PseudoClass CRITICAL = PseudoClass.getPseudoClass("critical");
+
+    private final int warningSeconds;
+    private final int criticalSeconds;
+    private int shownSeconds = -1;
+
+    // Turns orange at warningSeconds and red at criticalSeconds (use 0 to skip a stage)
+    public QuizTimerLabel(int warningSeconds, int criticalSeconds) {
+        this.warningSeconds = warningSeconds;
+        this.criticalSeconds = criticalSeconds;
+        QuestionView.applyStylesheet(this);
+        getStyleClass().add("quiz-timer");
+    }
+
+    public void setSeconds(int seconds) {
+        if (seconds == shownSeconds) {
+            return;
+        }
+        shownSeconds = seconds;
+        setText("⏰ " + seconds + "s");
+        boolean critical = seconds <= criticalSeconds;
+        pseudoClassStateChanged(CRITICAL, critical);
+        pseudoClassStateChanged(WARNING, !critical && seconds <= warningSeconds);
+    }
+}
@@ -0,0 +1,187 @@
+package service;
+
+import model.ScoreEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Indexable skip list ordered by (score DESC, username ASC).
+// Each forward link stores its span, so rank lookup and "row at rank N" are O(log n).
+// Not thread-safe; LeaderboardService guards it with a read/write lock.
+class RankedIndex {
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    private static final class Node {
+        private final String username;
+        private final int score;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(String username, int score, int levels) {
+            this.username = username;
+            this.score = score;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+
+    // Negative when (scoreA, userA) ranks ahead of (scoreB, userB)
+    static int compare(int scoreA, String userA, int scoreB, String userB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB ? -1 : 1;
+        }
+        return userA.compareTo(userB);
+    }
+
+    private static int compare(Node node, int score, String username) {
+        return compare(node.score, node.username, score, username);
+    }
+
+    private int randomLevel() {
+        int lvl = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (lvl < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            lvl++;
+        }
+        return lvl;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(String username, int score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, username) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int lvl = randomLevel();
+        if (lvl > level) {
+            for (int i = level; i < lvl; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = lvl;
+        }
+
+        Node node = new Node(username, score, lvl);
+        for (int i = 0; i < lvl; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = lvl; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    public boolean delete(String username, int score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, username) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        x = x.next[0];
+        if (x == null || x.score != score || !x.username.equals(username)) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    // 1-based rank of the entry, or 0 if it is not in the index
+    public int rankOf(String username, int score) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, username) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.score == score && x.username.equals(username)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    // Up to limit rows starting at the given 0-based offset
+    public List<ScoreEntry> range(int offset, int limit) {
+        List<ScoreEntry> rows = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        if (offset < 0 || offset >= size || limit <= 0) {
+            return rows;
+        }
+
+        int target = offset + 1;
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        collect(x, traversed, limit, rows);
+        return rows;
+    }
+
+    // Up to limit rows ranked strictly after (score, username); the keyset form of range()
+    public List<ScoreEntry> after(int score, String username, int limit) {
+        List<ScoreEntry> rows = new ArrayList<>();
+        if (limit <= 0) {
+            return rows;
+        }
+
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, username) <= 0) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        if (x.next[0] != null) {
+            collect(x.next[0], traversed + 1, limit, rows);
+        }
+        return rows;
+    }
+
+    private static void collect(Node from, int rank, int limit, List<ScoreEntry> rows) {
+        for (Node n = from; n != null && rows.size() < limit; n = n.next[0]) {
+            rows.add(new ScoreEntry(rank++, n.username, n.score));
+        }
+    }
+}
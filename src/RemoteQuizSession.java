@@ -0,0 +1,151 @@
+package server;
+
+import model.Question;
+import service.QuizFlow;
+import service.QuizSession;
+
+import java.util.Map;
+
+// A quiz held by QuizServer, driven through its /api/quizzes endpoints. The server samples the
+// questions, keeps the clock and the score and records the attempt on finish(); this side only
+// mirrors the current question and its deadline for display. Questions arrive without their
+// correct answer.
+public class RemoteQuizSession implements QuizFlow {
+    private final QuizServiceClient client;
+    private final String quizId;
+    private final int questionCount;
+    private final int timePerQuestionSeconds;
+
+    private Question currentQuestion;
+    private int currentIndex;
+    private int score;
+    private boolean finished;
+    private long deadlineNanos;
+
+    private RemoteQuizSession(QuizServiceClient client, String quizId, int questionCount, int timePerQuestionSeconds) {
+        this.client = client;
+        this.quizId = quizId;
+        this.questionCount = questionCount;
+        this.timePerQuestionSeconds = timePerQuestionSeconds;
+    }
+
+    // Starts a quiz on the server and loads its first question (whose clock is already running)
+    public static RemoteQuizSession start(QuizServiceClient client, int courseId) {
+        Map<String, Object> started = client.startQuiz(courseId);
+        RemoteQuizSession quiz = new RemoteQuizSession(client, (String) started.get("quizId"),
+                asInt(started.get("questionCount")), asInt(started.get("timePerQuestion")));
+        quiz.refresh();
+        return quiz;
+    }
+
+    // Current question, score and remaining time as the server sees them
+    private synchronized void refresh() {
+        Map<String, Object> state = client.getCurrentQuestion(quizId);
+        score = asInt(state.get("score"));
+        finished = Boolean.TRUE.equals(state.get("finished"));
+        if (finished) {
+            currentQuestion = null;
+            currentIndex = questionCount;
+            return;
+        }
+        currentIndex = asInt(state.get("index"));
+        currentQuestion = QuizServiceClient.toQuestion((Map<?, ?>) state.get("question"));
+        // Measured from when the response arrived, so the local deadline never falls before the server's
+        deadlineNanos = System.nanoTime() + ((Number) state.get("remainingMillis")).longValue() * 1_000_000;
+    }
+
+    private QuizSession.Outcome recorded(Map<String, Object> result) {
+        QuizSession.Outcome outcome = QuizSession.Outcome.valueOf((String) result.get("outcome"));
+        refresh();
+        return outcome;
+    }
+
+    // The server starts the clock when the question becomes current
+    @Override
+    public void startQuestion() {
+    }
+
+    // The server's clock keeps running
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public synchronized long getRemainingMillis() {
+        return finished ? 0 : Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    @Override
+    public synchronized boolean isExpired() {
+        return !finished && System.nanoTime() >= deadlineNanos;
+    }
+
+    @Override
+    public QuizSession.Outcome submit(int answer) {
+        return recorded(client.submitAnswer(quizId, answer));
+    }
+
+    @Override
+    public QuizSession.Outcome skip() {
+        return recorded(client.skipQuestion(quizId));
+    }
+
+    // The server times the question out itself when asked for the current one after its deadline
+    @Override
+    public QuizSession.Outcome expire() {
+        int expiredIndex = getCurrentIndex();
+        refresh();
+        if (getCurrentIndex() == expiredIndex && !isFinished()) {
+            skip(); // clocks disagree slightly; the question is over either way
+        }
+        return QuizSession.Outcome.TIMED_OUT;
+    }
+
+    // Ends the quiz; the server records the score and the attempt. Returns the final score.
+    public int finish() {
+        return asInt(client.finishQuiz(quizId).get("score"));
+    }
+
+    @Override
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public synchronized Question getCurrentQuestion() {
+        return currentQuestion;
+    }
+
+    @Override
+    public synchronized int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    @Override
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    @Override
+    public synchronized int getScore() {
+        return score;
+    }
+
+    @Override
+    public synchronized double getPercentage() {
+        return questionCount == 0 ? 0 : score * 100.0 / questionCount;
+    }
+
+    @Override
+    public int getTimePerQuestionSeconds() {
+        return timePerQuestionSeconds;
+    }
+
+    private static int asInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns the current row of a ResultSet into an object. Mappers read columns by position, so each
+// one is paired with the column list it expects (see RowMappers).
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+
+    // Maps every remaining row
+    default List<T> mapAll(ResultSet rs) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(map(rs));
+        }
+        return rows;
+    }
+}
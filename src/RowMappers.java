@@ -0,0 +1,37 @@
+package service;
+
+import model.Course;
+import model.Question;
+import model.QuestionHeader;
+
+// Explicit column lists and the mappers that read them.
+// Queries select exactly these columns instead of SELECT *, so new (possibly large) columns are
+// never pulled unless a mapper asks for them, and listing screens can fetch headers only.
+public final class RowMappers {
+    public static final String COURSE_COLUMNS = "course_id, course_name, course_code, description";
+
+    public static final String QUESTION_COLUMNS =
+            "id, course_id, difficulty_level, question_text, option1, option2, option3, option4, correct_option";
+
+    public static final String QUESTION_HEADER_COLUMNS = "id, course_id, difficulty_level";
+
+    public static final RowMapper<Course> COURSE = rs -> new Course(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4));
+
+    public static final RowMapper<Question> QUESTION = rs -> {
+        String[] options = {rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8)};
+        int correct = rs.getInt(9) + 1; // convert 0-based to 1-based
+        return new Question(rs.getInt(1), rs.getString(4), options, correct, rs.getInt(2), rs.getString(3));
+    };
+
+    public static final RowMapper<QuestionHeader> QUESTION_HEADER = rs -> new QuestionHeader(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getString(3));
+
+    private RowMappers() {
+    }
+}
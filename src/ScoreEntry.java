@@ -0,0 +1,31 @@
+package model;
+
+// One ranked row of a leaderboard
+public class ScoreEntry {
+    private final int rank;
+    private final String username;
+    private final int score;
+
+    public ScoreEntry(int rank, String username, int score) {
+        this.rank = rank;
+        this.username = username;
+        this.score = score;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return rank + ". " + username + " (" + score + ")";
+    }
+}
@@ -0,0 +1,205 @@
+package service;
+
+import model.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind sink for users.score.
+// Quiz results are queued per user (a newer score replaces an unflushed older one) and written
+// as JDBC batches every SCORE_FLUSH_INTERVAL_MS, or sooner once a full batch is waiting, so a
+// class finishing an exam together costs a few batched round-trips instead of one UPDATE each.
+// When SCORE_MAX_PENDING users are queued, callers wait for a flush and finally flush themselves.
+// The queue is drained before the connection pool shuts down.
+public class ScoreWriteBehind {
+    private static volatile ScoreWriteBehind instance;
+
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object capacity = new Object();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean();
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private ScoreWriteBehind() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "score-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                DBConfig.SCORE_FLUSH_INTERVAL_MS, DBConfig.SCORE_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static ScoreWriteBehind getInstance() {
+        ScoreWriteBehind sink = instance;
+        if (sink == null) {
+            synchronized (ScoreWriteBehind.class) {
+                sink = instance;
+                if (sink == null) {
+                    sink = new ScoreWriteBehind();
+                    ConnectionPool.getInstance().runBeforeShutdown(sink::close);
+                    sink.registerGauges(MetricsRegistry.getInstance());
+                    instance = sink;
+                }
+            }
+        }
+        return sink;
+    }
+
+    private void registerGauges(MetricsRegistry registry) {
+        registry.registerGauge("score_sink_pending", pending::size);
+        registry.registerGauge("score_sink_submitted", submitted::get);
+        registry.registerGauge("score_sink_coalesced", coalesced::get);
+        registry.registerGauge("score_sink_written", written::get);
+        registry.registerGauge("score_sink_batches", batches::get);
+        registry.registerGauge("score_sink_failed_flushes", failedFlushes::get);
+        registry.registerGauge("score_sink_throttled", throttled::get);
+    }
+
+    // Queues the user's new score; only the latest unflushed score per user is written
+    public void submit(String username, int score) {
+        submitted.incrementAndGet();
+        if (pending.put(username, score) != null) {
+            coalesced.incrementAndGet();
+        }
+        if (closed) {
+            // Late writes during shutdown go straight through
+            flush();
+            return;
+        }
+
+        int size = pending.size();
+        if (size >= DBConfig.SCORE_BATCH_SIZE && earlyFlushQueued.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    earlyFlushQueued.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                earlyFlushQueued.set(false); // shutting down; close() drains the queue
+            }
+        }
+        if (size >= DBConfig.SCORE_MAX_PENDING) {
+            awaitCapacity();
+        }
+    }
+
+    // Backpressure: wait for the flusher to drain the queue, then flush on this thread
+    private void awaitCapacity() {
+        throttled.incrementAndGet();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DBConfig.SCORE_BACKPRESSURE_TIMEOUT_MS);
+        synchronized (capacity) {
+            while (pending.size() >= DBConfig.SCORE_MAX_PENDING) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    break;
+                }
+                try {
+                    capacity.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (pending.size() >= DBConfig.SCORE_MAX_PENDING) {
+            flush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.out.println("❌ Score flush error: " + e.getMessage());
+        }
+    }
+
+    // Writes everything queued so far; entries that fail stay queued for the next attempt
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                // Sorted so concurrent batches lock rows in the same order
+                Map<String, Integer> batch = new TreeMap<>();
+                for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+                    batch.put(entry.getKey(), entry.getValue());
+                    if (batch.size() >= DBConfig.SCORE_BATCH_SIZE) {
+                        break;
+                    }
+                }
+                if (!writeBatch(batch)) {
+                    failedFlushes.incrementAndGet();
+                    return;
+                }
+                // Keep any score that was replaced while the batch was in flight
+                for (Map.Entry<String, Integer> entry : batch.entrySet()) {
+                    pending.remove(entry.getKey(), entry.getValue());
+                }
+                written.addAndGet(batch.size());
+                batches.incrementAndGet();
+                synchronized (capacity) {
+                    capacity.notifyAll();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean writeBatch(Map<String, Integer> batch) {
+        String sql = "UPDATE users SET score = ? WHERE username = ?";
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Map.Entry<String, Integer> entry : batch.entrySet()) {
+                    ps.setInt(1, entry.getValue());
+                    ps.setString(2, entry.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ Score flush error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Final drain; called before the connection pool closes
+    public void close() {
+        closed = true;
+        flusher.shutdown();
+        flush();
+        if (!pending.isEmpty()) {
+            System.out.println("❌ " + pending.size() + " score update(s) could not be saved on shutdown");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package server;
+
+import model.Course;
+import model.QuizConfig;
+import service.QuizSession;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Login tokens and in-progress quiz sessions held by the server.
+// Both expire after a period without use; a daemon sweeper drops them so abandoned clients
+// do not pin memory.
+public class SessionStore {
+    private static final long TOKEN_IDLE_TIMEOUT_MS = 2 * 60 * 60_000L;
+    private static final long QUIZ_IDLE_TIMEOUT_MS = 30 * 60_000L;
+    private static final long SWEEP_INTERVAL_MS = 60_000L;
+
+    public static class QuizEntry {
+        private final String username;
+        private final Course course;
+        private final QuizConfig config;
+        private final QuizSession session;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        QuizEntry(String username, Course course, QuizConfig config, QuizSession session) {
+            this.username = username;
+            this.course = course;
+            this.config = config;
+            this.session = session;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Course getCourse() {
+            return course;
+        }
+
+        public QuizConfig getConfig() {
+            return config;
+        }
+
+        public QuizSession getSession() {
+            return session;
+        }
+    }
+
+    private static class TokenEntry {
+        private final String username;
+        private final boolean teacher;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        TokenEntry(String username, boolean teacher) {
+            this.username = username;
+            this.teacher = teacher;
+        }
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, TokenEntry> tokens = new ConcurrentHashMap<>();
+    private final Map<String, QuizEntry> quizzes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public SessionStore() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Students and teachers are separate accounts, so each token is issued for one of the two roles
+    public String issueToken(String username, boolean teacher) {
+        String token = newId();
+        tokens.put(token, new TokenEntry(username, teacher));
+        return token;
+    }
+
+    // Username the token was issued to, or null if unknown, expired or issued for the other role
+    public String authenticate(String token, boolean teacher) {
+        if (token == null) {
+            return null;
+        }
+        TokenEntry entry = tokens.get(token);
+        if (entry == null || entry.teacher != teacher) {
+            return null;
+        }
+        entry.lastUsed = System.currentTimeMillis();
+        return entry.username;
+    }
+
+    public void revokeToken(String token) {
+        if (token != null) {
+            tokens.remove(token);
+        }
+    }
+
+    public String startQuiz(String username, Course course, QuizConfig config, QuizSession session) {
+        String id = newId();
+        quizzes.put(id, new QuizEntry(username, course, config, session));
+        return id;
+    }
+
+    // Quiz owned by the given user, or null if it does not exist (or belongs to someone else)
+    public QuizEntry getQuiz(String id, String username) {
+        QuizEntry entry = quizzes.get(id);
+        if (entry == null || !entry.username.equals(username)) {
+            return null;
+        }
+        entry.lastUsed = System.currentTimeMillis();
+        return entry;
+    }
+
+    // Removes and returns the user's quiz, or null if it was not theirs or already ended
+    public QuizEntry endQuiz(String id, String username) {
+        QuizEntry entry = quizzes.get(id);
+        if (entry == null || !entry.username.equals(username) || !quizzes.remove(id, entry)) {
+            return null;
+        }
+        return entry;
+    }
+
+    public int getActiveQuizCount() {
+        return quizzes.size();
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        for (Iterator<TokenEntry> it = tokens.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().lastUsed > TOKEN_IDLE_TIMEOUT_MS) {
+                it.remove();
+            }
+        }
+        for (Iterator<QuizEntry> it = quizzes.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().lastUsed > QUIZ_IDLE_TIMEOUT_MS) {
+                it.remove();
+            }
+        }
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -1,3 +1,4 @@
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -5,22 +6,28 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import model.Course;
-import model.Question;
+import model.QuestionCounts;
+import service.AsyncDataService;
+import service.QuestionExporter;
 import service.UserManager;
 
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class TeacherCourseManagementController {
     private Stage primaryStage;
     private UserManager userManager;
     private model.Teacher currentTeacher;
+    private AsyncDataService asyncData;
 
     public TeacherCourseManagementController(Stage primaryStage, UserManager userManager, model.Teacher currentTeacher) {
         this.primaryStage = primaryStage;
         this.userManager = userManager;
         this.currentTeacher = currentTeacher;
+        this.asyncData = new AsyncDataService(userManager);
     }
 
     public void show() {
@@ -48,26 +55,45 @@ public class TeacherCourseManagementController {
         instructionLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         instructionLabel.setStyle("-fx-text-fill: #333;");
 
-        // Load courses and create buttons
-        List<Course> courses = userManager.getAllCourses();
+        // Show a placeholder, then create course buttons once courses and counts arrive off the FX thread
         VBox courseButtons = new VBox(10);
         courseButtons.setAlignment(Pos.CENTER);
 
-        for (Course course : courses) {
-            Button courseBtn = createCourseButton(course);
-            courseBtn.setOnAction(e -> showCourseQuestions(course));
-            courseButtons.getChildren().add(courseBtn);
-        }
+        Label loadingLabel = new Label("⏳ Loading courses...");
+        loadingLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+        courseButtons.getChildren().add(loadingLabel);
+
+        // Courses and all per-course counts come from two cached queries, not one query per course
+        asyncData.getAllCourses().thenCombine(asyncData.getQuestionCountsByCourse(), (courses, counts) -> {
+            Map<Course, Integer> countByCourse = new LinkedHashMap<>();
+            for (Course course : courses) {
+                QuestionCounts courseCounts = counts.get(course.getCourseId());
+                countByCourse.put(course, courseCounts == null ? 0 : courseCounts.getTotal());
+            }
+            return countByCourse;
+        }).thenAcceptAsync(counts -> {
+            courseButtons.getChildren().clear();
+            for (Map.Entry<Course, Integer> entry : counts.entrySet()) {
+                Course course = entry.getKey();
+                Button courseBtn = createCourseButton(course, entry.getValue());
+                courseBtn.setOnAction(e -> showCourseQuestions(course));
+                courseButtons.getChildren().add(courseBtn);
+            }
+        }, Platform::runLater);
 
         // Add general options
         Button viewAllQuestionsBtn = createStyledButton("📋 View All Questions (Mixed)", "#9C27B0");
         Button addQuestionBtn = createStyledButton("➕ Add Question to Course", "#4CAF50");
+        Button importBtn = createStyledButton("📥 Bulk Import Questions", "#3F51B5");
+        Button exportBtn = createStyledButton("📤 Export Questions", "#009688");
 
         viewAllQuestionsBtn.setOnAction(e -> showAllQuestionsScreen());
         addQuestionBtn.setOnAction(e -> showAddQuestionToCourseScreen());
+        importBtn.setOnAction(e -> showBulkImportScreen());
+        exportBtn.setOnAction(e -> showExportScreen());
 
         courseContainer.getChildren().addAll(instructionLabel, courseButtons,
-                new Separator(), viewAllQuestionsBtn, addQuestionBtn);
+                new Separator(), viewAllQuestionsBtn, addQuestionBtn, importBtn, exportBtn);
 
         // Navigation buttons
         HBox buttonBox = new HBox(20);
@@ -84,7 +110,7 @@ public class TeacherCourseManagementController {
         primaryStage.setScene(scene);
     }
 
-    private Button createCourseButton(Course course) {
+    private Button createCourseButton(Course course, int questionCount) {
         VBox courseInfo = new VBox(5);
         courseInfo.setAlignment(Pos.CENTER);
 
@@ -96,8 +122,6 @@ public class TeacherCourseManagementController {
         courseCode.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
         courseCode.setStyle("-fx-text-fill: #E8F5E8;");
 
-        // Get question count for this course
-        int questionCount = getQuestionCountForCourse(course.getCourseId());
         Label questionCountLabel = new Label(questionCount + " questions available");
         questionCountLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 10));
         questionCountLabel.setStyle("-fx-text-fill: #E8F5E8;");
@@ -142,11 +166,6 @@ public class TeacherCourseManagementController {
         }
     }
 
-    private int getQuestionCountForCourse(int courseId) {
-        List<Question> questions = userManager.getQuestionsByCourse(courseId);
-        return questions.size();
-    }
-
     private void showCourseQuestions(Course course) {
         VBox root = new VBox(20);
         root.setPadding(new Insets(30));
@@ -157,16 +176,11 @@ public class TeacherCourseManagementController {
         title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
         title.setStyle("-fx-text-fill: white;");
 
-        ScrollPane scrollPane = new ScrollPane();
-        VBox questionsBox = new VBox(15);
-        questionsBox.setPadding(new Insets(20));
-        questionsBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 10;");
-
-        loadCourseQuestions(questionsBox, course);
-
-        scrollPane.setContent(questionsBox);
-        scrollPane.setPrefHeight(350);
-        scrollPane.setFitToWidth(true);
+        // Virtualized and paged: only the visible rows are nodes, further rows load while scrolling
+        QuestionListView questionList = new QuestionListView(asyncData, course.getCourseId(),
+                "No questions found for " + course.getCourseName());
+        questionList.setPrefHeight(350);
+        VBox.setVgrow(questionList, Priority.ALWAYS);
 
         HBox buttonBox = new HBox(15);
         buttonBox.setAlignment(Pos.CENTER);
@@ -181,56 +195,12 @@ public class TeacherCourseManagementController {
 
         buttonBox.getChildren().addAll(addToCourseBtn, createQuizBtn, backBtn);
 
-        root.getChildren().addAll(title, scrollPane, buttonBox);
+        root.getChildren().addAll(title, questionList, buttonBox);
 
         Scene scene = new Scene(root, 800, 600);
         primaryStage.setScene(scene);
     }
 
-    private void loadCourseQuestions(VBox questionsBox, Course course) {
-        List<Question> questions = userManager.getQuestionsByCourse(course.getCourseId());
-
-        if (questions.isEmpty()) {
-            Label noQuestionsLabel = new Label("No questions found for " + course.getCourseName());
-            noQuestionsLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #666; -fx-font-style: italic;");
-            questionsBox.getChildren().add(noQuestionsLabel);
-            return;
-        }
-
-        for (Question question : questions) {
-            VBox questionBox = new VBox(8);
-            questionBox.setStyle("-fx-background-color: white; -fx-padding: 15; -fx-background-radius: 8; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 3, 0, 0, 1);");
-
-            Label idLabel = new Label("Question ID: " + question.getQuestionId());
-            idLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #666;");
-
-            Label difficultyLabel = new Label("Difficulty: " + question.getDifficultyLevel());
-            difficultyLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #FF9800;");
-
-            Label questionLabel = new Label("Q: " + question.getText());
-            questionLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #333;");
-            questionLabel.setWrapText(true);
-
-            String[] options = question.getOptions();
-            Label option1 = new Label("1. " + options[0]);
-            Label option2 = new Label("2. " + options[1]);
-            Label option3 = new Label("3. " + options[2]);
-            Label option4 = new Label("4. " + options[3]);
-
-            option1.setStyle("-fx-text-fill: #555;");
-            option2.setStyle("-fx-text-fill: #555;");
-            option3.setStyle("-fx-text-fill: #555;");
-            option4.setStyle("-fx-text-fill: #555;");
-
-            Label correctLabel = new Label("Correct Answer: " + question.getCorrectIndex());
-            correctLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #4CAF50;");
-
-            questionBox.getChildren().addAll(idLabel, difficultyLabel, questionLabel,
-                    option1, option2, option3, option4, correctLabel);
-            questionsBox.getChildren().add(questionBox);
-        }
-    }
-
     private void showAddQuestionToCourseScreen() {
         showAddQuestionToCourseScreen(null);
     }
@@ -253,11 +223,14 @@ public class TeacherCourseManagementController {
         Label courseLabel = new Label("Select Course:");
         courseLabel.setStyle("-fx-font-weight: bold;");
         ComboBox<Course> courseCombo = new ComboBox<>();
-        List<Course> courses = userManager.getAllCourses();
-        courseCombo.getItems().addAll(courses);
+        courseCombo.setPromptText("Loading courses...");
         if (selectedCourse != null) {
             courseCombo.setValue(selectedCourse);
         }
+        asyncData.getAllCourses().thenAcceptAsync(courses -> {
+            courseCombo.getItems().setAll(courses);
+            courseCombo.setPromptText(null);
+        }, Platform::runLater);
 
         // Question fields
         Label questionLabel = new Label("Question Text:");
@@ -327,7 +300,9 @@ public class TeacherCourseManagementController {
             int correctOption = Integer.parseInt(correctCombo.getValue());
             String difficulty = difficultyCombo.getValue();
 
-            if (userManager.addQuestionToCourse(
+            addBtn.setDisable(true);
+            messageLabel.setText("⏳ Adding question...");
+            asyncData.addQuestionToCourse(
                     selectedCourseValue.getCourseId(),
                     questionArea.getText().trim(),
                     option1Field.getText().trim(),
@@ -335,19 +310,22 @@ public class TeacherCourseManagementController {
                     option3Field.getText().trim(),
                     option4Field.getText().trim(),
                     correctOption,
-                    difficulty)) {
-                messageLabel.setText("✅ Question added to " + selectedCourseValue.getCourseName() + " successfully!");
-                // Clear form
-                questionArea.clear();
-                option1Field.clear();
-                option2Field.clear();
-                option3Field.clear();
-                option4Field.clear();
-                correctCombo.setValue("1");
-                difficultyCombo.setValue("Medium");
-            } else {
-                messageLabel.setText("❌ Failed to add question");
-            }
+                    difficulty).whenCompleteAsync((added, error) -> {
+                addBtn.setDisable(false);
+                if (error == null && added) {
+                    messageLabel.setText("✅ Question added to " + selectedCourseValue.getCourseName() + " successfully!");
+                    // Clear form
+                    questionArea.clear();
+                    option1Field.clear();
+                    option2Field.clear();
+                    option3Field.clear();
+                    option4Field.clear();
+                    correctCombo.setValue("1");
+                    difficultyCombo.setValue("Medium");
+                } else {
+                    messageLabel.setText("❌ Failed to add question");
+                }
+            }, Platform::runLater);
         });
 
         cancelBtn.setOnAction(e -> show());
@@ -360,6 +338,191 @@ public class TeacherCourseManagementController {
         primaryStage.setScene(scene);
     }
 
+    private void showBulkImportScreen() {
+        VBox root = new VBox(20);
+        root.setPadding(new Insets(30));
+        root.setAlignment(Pos.TOP_CENTER);
+        root.setStyle("-fx-background-color: linear-gradient(to bottom, #667eea 0%, #764ba2 100%);");
+
+        Label title = new Label("📥 Bulk Import Questions");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        title.setStyle("-fx-text-fill: white;");
+
+        VBox formBox = new VBox(15);
+        formBox.setPadding(new Insets(20));
+        formBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 10;");
+
+        Label formatLabel = new Label("CSV with a header row (course_id, question_text, option1-option4, correct_option, difficulty_level)\n"
+                + "or JSON / JSON Lines objects with the same fields. correct_option is 1-4.");
+        formatLabel.setStyle("-fx-text-fill: #555;");
+        formatLabel.setWrapText(true);
+
+        // Rows without a course_id go to this course
+        Label courseLabel = new Label("Default Course (optional):");
+        courseLabel.setStyle("-fx-font-weight: bold;");
+        ComboBox<Course> courseCombo = new ComboBox<>();
+        courseCombo.setPromptText("Loading courses...");
+        asyncData.getAllCourses().thenAcceptAsync(courses -> {
+            courseCombo.getItems().setAll(courses);
+            courseCombo.setPromptText("Use course_id from the file");
+        }, Platform::runLater);
+
+        Label fileLabel = new Label("No file selected");
+        fileLabel.setStyle("-fx-text-fill: #333;");
+        java.io.File[] selectedFile = new java.io.File[1];
+        Button chooseBtn = createStyledButton("📂 Choose File", "#2196F3");
+        chooseBtn.setOnAction(e -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Select Question File");
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Question files", "*.csv", "*.json", "*.jsonl"));
+            java.io.File file = chooser.showOpenDialog(primaryStage);
+            if (file != null) {
+                selectedFile[0] = file;
+                fileLabel.setText(file.getName() + " (" + (file.length() / 1024) + " KB)");
+            }
+        });
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(500);
+        Label progressLabel = new Label();
+        progressLabel.setStyle("-fx-text-fill: #333;");
+        TextArea errorsArea = new TextArea();
+        errorsArea.setEditable(false);
+        errorsArea.setPrefRowCount(6);
+        errorsArea.setVisible(false);
+        errorsArea.setManaged(false);
+
+        formBox.getChildren().addAll(formatLabel, courseLabel, courseCombo, chooseBtn, fileLabel,
+                progressBar, progressLabel, errorsArea);
+
+        HBox buttonBox = new HBox(20);
+        buttonBox.setAlignment(Pos.CENTER);
+        Button importBtn = createStyledButton("✅ Import", "#4CAF50");
+        Button backBtn = createStyledButton("⬅ Back", "#9E9E9E");
+        backBtn.setOnAction(e -> show());
+
+        importBtn.setOnAction(e -> {
+            if (selectedFile[0] == null) {
+                progressLabel.setText("❌ Please choose a file first");
+                return;
+            }
+            Course defaultCourse = courseCombo.getValue();
+            importBtn.setDisable(true);
+            backBtn.setDisable(true);
+            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            progressLabel.setText("⏳ Importing...");
+            errorsArea.setVisible(false);
+            errorsArea.setManaged(false);
+
+            asyncData.importQuestions(selectedFile[0].toPath(),
+                    defaultCourse == null ? null : defaultCourse.getCourseId(),
+                    progress -> Platform.runLater(() -> {
+                        if (progress.getFraction() >= 0) {
+                            progressBar.setProgress(progress.getFraction());
+                        }
+                        progressLabel.setText("⏳ " + progress.getImported() + " imported, "
+                                + progress.getRejected() + " rejected of " + progress.getRecordsRead() + " read");
+                    })
+            ).whenCompleteAsync((result, error) -> {
+                importBtn.setDisable(false);
+                backBtn.setDisable(false);
+                if (error != null) {
+                    progressBar.setProgress(0);
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    progressLabel.setText("❌ Import failed: " + cause.getMessage());
+                    return;
+                }
+                progressBar.setProgress(1);
+                progressLabel.setText("✅ " + result);
+                if (!result.getErrors().isEmpty()) {
+                    errorsArea.setText(String.join("\n", result.getErrors()));
+                    errorsArea.setVisible(true);
+                    errorsArea.setManaged(true);
+                }
+            }, Platform::runLater);
+        });
+
+        buttonBox.getChildren().addAll(importBtn, backBtn);
+        root.getChildren().addAll(title, formBox, buttonBox);
+
+        Scene scene = new Scene(root, 700, 650);
+        primaryStage.setScene(scene);
+    }
+
+    private void showExportScreen() {
+        VBox root = new VBox(20);
+        root.setPadding(new Insets(30));
+        root.setAlignment(Pos.TOP_CENTER);
+        root.setStyle("-fx-background-color: linear-gradient(to bottom, #667eea 0%, #764ba2 100%);");
+
+        Label title = new Label("📤 Export Questions");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        title.setStyle("-fx-text-fill: white;");
+
+        VBox formBox = new VBox(15);
+        formBox.setPadding(new Insets(20));
+        formBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 10;");
+
+        Label courseLabel = new Label("Course (optional):");
+        courseLabel.setStyle("-fx-font-weight: bold;");
+        ComboBox<Course> courseCombo = new ComboBox<>();
+        courseCombo.setPromptText("Loading courses...");
+        asyncData.getAllCourses().thenAcceptAsync(courses -> {
+            courseCombo.getItems().setAll(courses);
+            courseCombo.setPromptText("All courses");
+        }, Platform::runLater);
+
+        Label formatLabel = new Label("Format:");
+        formatLabel.setStyle("-fx-font-weight: bold;");
+        ComboBox<QuestionExporter.Format> formatCombo = new ComboBox<>();
+        formatCombo.getItems().setAll(QuestionExporter.Format.values());
+        formatCombo.setValue(QuestionExporter.Format.CSV);
+
+        Label statusLabel = new Label();
+        statusLabel.setStyle("-fx-text-fill: #333;");
+        statusLabel.setWrapText(true);
+
+        formBox.getChildren().addAll(courseLabel, courseCombo, formatLabel, formatCombo, statusLabel);
+
+        HBox buttonBox = new HBox(20);
+        buttonBox.setAlignment(Pos.CENTER);
+        Button exportBtn = createStyledButton("💾 Export", "#4CAF50");
+        Button backBtn = createStyledButton("⬅ Back", "#9E9E9E");
+        backBtn.setOnAction(e -> show());
+
+        exportBtn.setOnAction(e -> {
+            QuestionExporter.Format format = formatCombo.getValue();
+            Course course = courseCombo.getValue();
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Export Questions");
+            chooser.setInitialFileName((course == null ? "questions" : "questions-course-" + course.getCourseId()) + format.getExtension());
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format.name(), "*" + format.getExtension()));
+            java.io.File file = chooser.showSaveDialog(primaryStage);
+            if (file == null) {
+                return;
+            }
+
+            exportBtn.setDisable(true);
+            statusLabel.setText("⏳ Exporting...");
+            asyncData.exportQuestions(file.toPath(), format, course == null ? null : course.getCourseId())
+                    .whenCompleteAsync((result, error) -> {
+                        exportBtn.setDisable(false);
+                        if (error != null) {
+                            Throwable cause = error.getCause() != null ? error.getCause() : error;
+                            statusLabel.setText("❌ Export failed: " + cause.getMessage());
+                        } else {
+                            statusLabel.setText("✅ Exported " + result + " to " + file.getName());
+                        }
+                    }, Platform::runLater);
+        });
+
+        buttonBox.getChildren().addAll(exportBtn, backBtn);
+        root.getChildren().addAll(title, formBox, buttonBox);
+
+        Scene scene = new Scene(root, 600, 450);
+        primaryStage.setScene(scene);
+    }
+
     private void showCreateCustomQuizScreen(Course course) {
         VBox root = new VBox(20);
         root.setPadding(new Insets(30));
@@ -416,10 +579,28 @@ public class TeacherCourseManagementController {
 
         settingsBox.getChildren().addAll(leftSettings, new Separator(), rightSettings);
 
-        // Quiz info
-        int totalQuestions = getQuestionCountForCourse(course.getCourseId());
-        Label infoLabel = new Label("Available questions in " + course.getCourseName() + ": " + totalQuestions);
+        // Quiz info, served from the cached bulk count query rather than loading the course's questions
+        Label infoLabel = new Label("⏳ Counting questions in " + course.getCourseName() + "...");
         infoLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #666;");
+        int[] totalQuestions = {-1}; // -1 until the counts arrive
+        asyncData.getQuestionCountsByCourse().thenAcceptAsync(allCounts -> {
+            QuestionCounts counts = allCounts.get(course.getCourseId());
+            if (counts == null) {
+                counts = new QuestionCounts(course.getCourseId(), Map.of());
+            }
+            totalQuestions[0] = counts.getTotal();
+            StringBuilder breakdown = new StringBuilder();
+            for (Map.Entry<String, Integer> entry : counts.getByDifficulty().entrySet()) {
+                breakdown.append(breakdown.length() == 0 ? " (" : ", ").append(entry.getKey()).append(": ").append(entry.getValue());
+            }
+            if (breakdown.length() > 0) {
+                breakdown.append(")");
+            }
+            infoLabel.setText("Available questions in " + course.getCourseName() + ": " + totalQuestions[0] + breakdown);
+        }, Platform::runLater).exceptionally(e -> {
+            Platform.runLater(() -> infoLabel.setText("❌ Could not count the questions in " + course.getCourseName()));
+            return null;
+        });
 
         formBox.getChildren().addAll(instructionLabel, settingsBox, infoLabel);
 
@@ -439,7 +620,11 @@ public class TeacherCourseManagementController {
             String timePerQuestion = timeCombo.getValue();
             boolean shuffle = shuffleCheckBox.isSelected();
 
-            if (totalQuestions == 0) {
+            if (totalQuestions[0] < 0) {
+                messageLabel.setText("⏳ Still counting the questions, try again in a moment");
+                return;
+            }
+            if (totalQuestions[0] == 0) {
                 messageLabel.setText("❌ No questions available in " + course.getCourseName());
                 return;
             }
@@ -471,37 +656,19 @@ public class TeacherCourseManagementController {
         title.setFont(Font.font("Arial", FontWeight.BOLD, 24));
         title.setStyle("-fx-text-fill: white;");
 
-        ScrollPane scrollPane = new ScrollPane();
-        VBox questionsBox = new VBox(15);
-        questionsBox.setPadding(new Insets(20));
-        questionsBox.setStyle("-fx-background-color: rgba(255,255,255,0.9); -fx-background-radius: 10;");
-
-        loadAllQuestions(questionsBox);
-
-        scrollPane.setContent(questionsBox);
-        scrollPane.setPrefHeight(350);
-        scrollPane.setFitToWidth(true);
+        QuestionListView questionList = new QuestionListView(asyncData, null, "No questions found.");
+        questionList.setPrefHeight(350);
+        VBox.setVgrow(questionList, Priority.ALWAYS);
 
         Button backBtn = createStyledButton("⬅ Back", "#9E9E9E");
         backBtn.setOnAction(e -> show());
 
-        root.getChildren().addAll(title, scrollPane, backBtn);
+        root.getChildren().addAll(title, questionList, backBtn);
 
         Scene scene = new Scene(root, 800, 600);
         primaryStage.setScene(scene);
     }
 
-    private void loadAllQuestions(VBox questionsBox) {
-        // This will load all questions from all courses
-        userManager.showAllQuestions(); // This prints to console, but we need GUI version
-
-        // For GUI, we need to implement a method to get all questions with course info
-        // For now, let's show a message
-        Label messageLabel = new Label("All questions are displayed in the console.\nCourse-specific management is available above.");
-        messageLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666; -fx-text-alignment: center;");
-        questionsBox.getChildren().add(messageLabel);
-    }
-
     private void returnToTeacherDashboard() {
         // Return to the teacher dashboard
         QuizApp app = new QuizApp();
@@ -15,5 +15,9 @@ public class User {
         return username;
     }
 
+    public int getScore() {
+        return score;
+    }
+
 
 }
@@ -1,15 +1,25 @@
 package service;
 
-import model.DBConfig;
+import model.Course;
+import model.Question;
+import model.QuizConfig;
 import model.User;
 import model.Teacher;
+import model.ScoreEntry;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class UserManager {
+    private static final int PAGE_SIZE = 500;
 
-    // Get a fresh database connection for each operation
+    private final LeaderboardService leaderboard = LeaderboardService.getInstance();
+    private static volatile boolean configSchemaReady;
+
+    // Borrow a connection from the shared pool for each operation
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DBConfig.URL, DBConfig.USER, DBConfig.PASS);
+        return ConnectionPool.getInstance().getConnection();
     }
 
     // Helper method for consistent error handling
@@ -24,6 +34,7 @@ public class UserManager {
             ps.setString(1, username);
             ps.setString(2, password);
             ps.executeUpdate();
+            leaderboard.addUser(username);
             return true;
         } catch (SQLException e) {
             handleSQLError("Registration", e);
@@ -32,15 +43,15 @@ public class UserManager {
     }
 
     public User login(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
+        String sql = "SELECT score FROM users WHERE username = ? AND password = ?";
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, username);
             ps.setString(2, password);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                int score = rs.getInt("score");
-                return new User(username, password, score);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new User(username, password, rs.getInt(1));
+                }
             }
         } catch (SQLException e) {
             handleSQLError("Login", e);
@@ -48,45 +59,52 @@ public class UserManager {
         return null;
     }
 
+    // Queued for a batched write-behind UPDATE; the leaderboard reflects it immediately
     public void updateUserScore(User user, int newScore) {
-        String sql = "UPDATE users SET score = ? WHERE username = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, newScore);
-            ps.setString(2, user.getUsername());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            handleSQLError("Score update", e);
-        }
+        ScoreWriteBehind.getInstance().submit(user.getUsername(), newScore);
+        leaderboard.updateScore(user.getUsername(), newScore);
     }
 
     public void showLeaderboard() {
-        String sql = "SELECT username, score FROM users ORDER BY score DESC";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            System.out.println("\n📊 Leaderboard:");
-            System.out.printf("%-15s %s\n", "Username", "Score");
-            System.out.println("------------------------");
-            while (rs.next()) {
-                System.out.printf("%-15s %d\n", rs.getString("username"), rs.getInt("score"));
-            }
-            System.out.println("------------------------\n");
-        } catch (SQLException e) {
-            handleSQLError("Leaderboard", e);
+        System.out.println("\n📊 Leaderboard:");
+        System.out.printf("%-15s %s\n", "Username", "Score");
+        System.out.println("------------------------");
+        for (ScoreEntry entry : getLeaderboard()) {
+            System.out.printf("%-15s %d\n", entry.getUsername(), entry.getScore());
         }
+        System.out.println("------------------------\n");
+    }
+
+    // Full ranking from the in-memory leaderboard index
+    public List<ScoreEntry> getLeaderboard() {
+        return leaderboard.getPage(0, leaderboard.size());
+    }
+
+    // Keyset page of the ranking: rows after (afterScore, afterUsername), or the first page when
+    // afterUsername is null. Served from the leaderboard index, which mirrors users.score order.
+    public List<ScoreEntry> getLeaderboardPage(int afterScore, String afterUsername, int limit) {
+        if (afterUsername == null) {
+            return leaderboard.getPage(0, limit);
+        }
+        return leaderboard.getPageAfter(afterScore, afterUsername, limit);
+    }
+
+    // 1-based rank of a student, or 0 if unknown
+    public int getRank(String username) {
+        return leaderboard.getRank(username);
     }
 
     // Teacher authentication method
     public Teacher teacherLogin(String username, String password) {
-        String sql = "SELECT * FROM teachers WHERE username = ? AND password = ?";
+        String sql = "SELECT 1 FROM teachers WHERE username = ? AND password = ?";
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, username);
             ps.setString(2, password);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new Teacher(username, password);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new Teacher(username, password);
+                }
             }
         } catch (SQLException e) {
             handleSQLError("Teacher Login", e);
@@ -111,45 +129,62 @@ public class UserManager {
 
     // Show all students list for teachers
     public void showStudentsList() {
-        String sql = "SELECT username FROM users ORDER BY username ASC";
+        System.out.println("\n👥 Students List (Alphabetical Order):");
+        System.out.printf("%-5s %-20s\n", "S/N", "Student Name");
+        System.out.println("--------------------------------");
+        int serialNumber = 1;
+        String after = null;
+        List<String> page;
+        do {
+            page = getStudentsPage(after, PAGE_SIZE);
+            for (String username : page) {
+                System.out.printf("%-5d %-20s\n", serialNumber++, username);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == PAGE_SIZE);
+        System.out.println("--------------------------------");
+        System.out.println("Total Students: " + (serialNumber - 1) + "\n");
+    }
+
+    // Keyset page of usernames in alphabetical order, starting after afterUsername (null = first page)
+    public List<String> getStudentsPage(String afterUsername, int limit) {
+        List<String> page = new ArrayList<>();
+        String sql = afterUsername == null
+                ? "SELECT username FROM users ORDER BY username ASC LIMIT ?"
+                : "SELECT username FROM users WHERE username > ? ORDER BY username ASC LIMIT ?";
         try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            System.out.println("\n👥 Students List (Alphabetical Order):");
-            System.out.printf("%-5s %-20s\n", "S/N", "Student Name");
-            System.out.println("--------------------------------");
-            int serialNumber = 1;
-            while (rs.next()) {
-                System.out.printf("%-5d %-20s\n", serialNumber++, rs.getString("username"));
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (afterUsername != null) {
+                ps.setString(index++, afterUsername);
+            }
+            ps.setInt(index, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(rs.getString("username"));
+                }
             }
-            System.out.println("--------------------------------");
-            System.out.println("Total Students: " + (serialNumber - 1) + "\n");
         } catch (SQLException e) {
             handleSQLError("Students List", e);
         }
+        return page;
     }
 
     // Enhanced leaderboard for teachers with more details
     public void showDetailedLeaderboard() {
-        String sql = "SELECT username, score FROM users ORDER BY score DESC";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            System.out.println("\n🏆 Detailed Leaderboard:");
-            System.out.printf("%-5s %-20s %s\n", "Rank", "Username", "Score");
-            System.out.println("------------------------------------");
-            int rank = 1;
-            while (rs.next()) {
-                System.out.printf("%-5d %-20s %d\n", rank++, rs.getString("username"), rs.getInt("score"));
-            }
-            System.out.println("------------------------------------\n");
-        } catch (SQLException e) {
-            handleSQLError("Detailed Leaderboard", e);
+        System.out.println("\n🏆 Detailed Leaderboard:");
+        System.out.printf("%-5s %-20s %s\n", "Rank", "Username", "Score");
+        System.out.println("------------------------------------");
+        for (ScoreEntry entry : getLeaderboard()) {
+            System.out.printf("%-5d %-20s %d\n", entry.getRank(), entry.getUsername(), entry.getScore());
         }
+        System.out.println("------------------------------------\n");
     }
     // View all questions (for teachers)
     public void showAllQuestions() {
-        String sql = "SELECT * FROM questions ORDER BY id ASC";
+        String sql = "SELECT " + RowMappers.QUESTION_COLUMNS + " FROM questions ORDER BY id ASC";
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -157,14 +192,15 @@ public class UserManager {
             System.out.println("=" .repeat(60));
             int totalCount = 0;
             while (rs.next()) {
-                int questionId = rs.getInt("id");
-                System.out.println("Question ID: " + questionId);
-                System.out.println("Q: " + rs.getString("question_text"));
-                System.out.println("1. " + rs.getString("option1"));
-                System.out.println("2. " + rs.getString("option2"));
-                System.out.println("3. " + rs.getString("option3"));
-                System.out.println("4. " + rs.getString("option4"));
-                System.out.println("Correct Answer: " + (rs.getInt("correct_option") + 1));
+                Question question = RowMappers.QUESTION.map(rs);
+                String[] options = question.getOptions();
+                System.out.println("Question ID: " + question.getQuestionId());
+                System.out.println("Q: " + question.getText());
+                System.out.println("1. " + options[0]);
+                System.out.println("2. " + options[1]);
+                System.out.println("3. " + options[2]);
+                System.out.println("4. " + options[3]);
+                System.out.println("Correct Answer: " + question.getCorrectIndex());
                 System.out.println("-".repeat(40));
                 totalCount++;
             }
@@ -187,6 +223,7 @@ public class UserManager {
             ps.setString(5, option4);
             ps.setInt(6, correctOption - 1); // Convert 1-4 to 0-3 for database
             ps.executeUpdate();
+            QuestionBankCache.getInstance().invalidateAll();
             return true;
         } catch (SQLException e) {
             handleSQLError("Add Question", e);
@@ -201,6 +238,10 @@ public class UserManager {
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, username);
             int rowsAffected = ps.executeUpdate();
+            leaderboard.removeUser(username);
+            if (rowsAffected > 0) {
+                CourseLeaderboardService.getInstance().removeStudent(username);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             handleSQLError("Delete Student", e);
@@ -215,6 +256,7 @@ public class UserManager {
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, questionId);
             int rowsAffected = ps.executeUpdate();
+            QuestionBankCache.getInstance().invalidateAll();
             return rowsAffected > 0;
         } catch (SQLException e) {
             handleSQLError("Delete Question", e);
@@ -222,4 +264,103 @@ public class UserManager {
         }
     }
 
+    // Quiz settings of a course; courses that were never configured get the QuizConfig defaults
+    public QuizConfig getQuizConfig(int courseId) {
+        // Served from the installed question bank snapshot until a config or question edit makes it stale
+        Map<Integer, QuizConfig> snapshot = QuestionBankCache.getInstance()
+                .getIfPresent(QuestionBankSnapshot.QUIZ_CONFIGS, QuestionBankCache.ALL_COURSES);
+        QuizConfig cached = snapshot == null ? null : snapshot.get(courseId);
+        if (cached != null) {
+            QuizConfig config = new QuizConfig(courseId, cached.getQuestionLimit(), cached.getTimePerQuestion());
+            config.setActive(cached.isActive());
+            return config;
+        }
+        return loadQuizConfig(courseId);
+    }
+
+    // Always from the database
+    QuizConfig loadQuizConfig(int courseId) {
+        String sql = "SELECT question_limit, time_per_question, is_active FROM quiz_config WHERE course_id = ?";
+        try (Connection conn = getConnection()) {
+            ensureConfigSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, courseId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        QuizConfig config = new QuizConfig(courseId, rs.getInt(1), rs.getInt(2));
+                        config.setActive(rs.getBoolean(3));
+                        return config;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            handleSQLError("Load Quiz Config", e);
+        }
+        QuizConfig config = new QuizConfig();
+        config.setCourseId(courseId);
+        return config;
+    }
+
+    // Save quiz settings for a course (for teachers)
+    public boolean updateQuizConfig(int courseId, int questionLimit, int timePerQuestion, String teacherUsername) {
+        String sql = "INSERT INTO quiz_config (course_id, question_limit, time_per_question, is_active, updated_by, updated_at) "
+                + "VALUES (?, ?, ?, TRUE, ?, NOW(3)) AS new "
+                + "ON DUPLICATE KEY UPDATE question_limit = new.question_limit, time_per_question = new.time_per_question, "
+                + "updated_by = new.updated_by, updated_at = new.updated_at";
+        try (Connection conn = getConnection()) {
+            ensureConfigSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, courseId);
+                ps.setInt(2, questionLimit);
+                ps.setInt(3, timePerQuestion);
+                ps.setString(4, teacherUsername);
+                ps.executeUpdate();
+                // Drops the snapshot's configs and anything prepared with the old settings
+                QuestionBankCache.getInstance().invalidateCourse(courseId);
+                return true;
+            }
+        } catch (SQLException e) {
+            handleSQLError("Update Quiz Config", e);
+            return false;
+        }
+    }
+
+    private static void ensureConfigSchema(Connection conn) throws SQLException {
+        if (configSchemaReady) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS quiz_config ("
+                    + "course_id INT NOT NULL PRIMARY KEY, "
+                    + "question_limit INT NOT NULL, "
+                    + "time_per_question INT NOT NULL, "
+                    + "is_active BOOLEAN NOT NULL DEFAULT TRUE, "
+                    + "updated_by VARCHAR(50), "
+                    + "updated_at TIMESTAMP(3) NULL)");
+        }
+        configSchemaReady = true;
+    }
+
+    // Course list for the console menus
+    public void showAllCourses() {
+        System.out.println("\n📚 Available Courses:");
+        System.out.printf("%-5s %-30s %s\n", "ID", "Course Name", "Code");
+        System.out.println("----------------------------------------------");
+        for (Course course : new CourseManager().getAllCourses()) {
+            System.out.printf("%-5d %-30s %s\n", course.getCourseId(), course.getCourseName(), course.getCourseCode());
+        }
+        System.out.println("----------------------------------------------\n");
+    }
+
+    // Current quiz settings of every course (for teachers)
+    public void showQuizConfigurations() {
+        System.out.println("\n⚙️ Quiz Configurations:");
+        System.out.printf("%-30s %-10s %s\n", "Course", "Questions", "Time/Question");
+        System.out.println("----------------------------------------------------");
+        for (Course course : new CourseManager().getAllCourses()) {
+            QuizConfig config = getQuizConfig(course.getCourseId());
+            System.out.printf("%-30s %-10d %ds\n", course.getCourseName(), config.getQuestionLimit(), config.getTimePerQuestion());
+        }
+        System.out.println("----------------------------------------------------\n");
+    }
 }
@@ -0,0 +1,127 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionBankTest {
+
+    private static QuestionBank sampleBank() {
+        return new QuestionBank.Builder()
+                .add(1, 1, "Easy", "What is 2 + 2?", new String[]{"3", "4", "5", "None of the above"}, 2)
+                .add(4, 1, null, "Capital of France?", new String[]{"Paris", "Rome", "None of the above"}, 1)
+                .add(2, 3, "Hard", "Ünïcödé ✓", new String[]{"yes", "no"}, 1)
+                .add(9, 3, "Easy", null, new String[]{"4", "None of the above"}, 2)
+                .build();
+    }
+
+    @Test
+    void readsRowsBack() {
+        QuestionBank bank = sampleBank();
+
+        assertEquals(4, bank.size());
+        assertEquals(9, bank.getMaxQuestionId());
+        assertEquals(4, bank.getQuestionId(1));
+        assertEquals(1, bank.getCourseId(1));
+        assertNull(bank.getDifficultyLevel(1));
+        assertEquals("Hard", bank.getDifficultyLevel(2));
+        assertEquals("Ünïcödé ✓", bank.getText(2));
+        assertNull(bank.getText(3));
+        assertEquals(3, bank.getOptionCount(1));
+        assertEquals("Paris", bank.getOption(1, 0));
+        assertTrue(bank.checkAnswer(0, 2));
+        assertFalse(bank.checkAnswer(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> bank.getOption(1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> bank.getText(4));
+    }
+
+    @Test
+    void storesRepeatedStringsOnce() {
+        QuestionBank bank = sampleBank();
+        // 11 distinct strings; the last row's "4" and "None of the above" reuse earlier ones
+        assertEquals(11, bank.getStringCount());
+    }
+
+    @Test
+    void deduplicatesAcrossStringTableGrowth() {
+        QuestionBank.Builder builder = new QuestionBank.Builder();
+        for (int id = 1; id <= 10_000; id++) {
+            builder.add(id, 1, "Easy", "Question " + (id % 3_000), new String[]{"A", "B", "Option " + (id % 700)}, 1);
+        }
+        QuestionBank bank = builder.build();
+        assertEquals(3_000 + 2 + 700, bank.getStringCount());
+        assertEquals("Question 1", bank.getText(3_000));
+        assertEquals("Option 299", bank.getOption(9_398, 2));
+    }
+
+    @Test
+    void indexesCourses() {
+        QuestionBank bank = sampleBank();
+        assertEquals(0, bank.courseStart(1));
+        assertEquals(2, bank.courseSize(1));
+        assertEquals(2, bank.courseStart(3));
+        assertEquals(-1, bank.courseStart(2));
+        assertEquals(0, bank.courseSize(2));
+        assertEquals(3, bank.indexOf(3, 9));
+        assertEquals(-1, bank.indexOf(3, 4));
+    }
+
+    @Test
+    void rejectsRowsOutOfOrder() {
+        QuestionBank.Builder builder = new QuestionBank.Builder().add(5, 2, null, "q", new String[]{"a"}, 1);
+        assertThrows(IllegalArgumentException.class, () -> builder.add(6, 1, null, "q", new String[]{"a"}, 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5, 2, null, "q", new String[]{"a"}, 1));
+    }
+
+    @Test
+    void cursorMovesOverRows() {
+        QuestionBank bank = sampleBank();
+        QuestionBank.Cursor cursor = bank.cursor();
+
+        assertEquals("Capital of France?", cursor.moveTo(1).getText());
+        assertEquals(1, cursor.getRow());
+        assertEquals(1, cursor.getCorrectIndex());
+        assertTrue(cursor.checkAnswer(1));
+
+        Question question = cursor.moveTo(2).toQuestion();
+        assertEquals(2, question.getQuestionId());
+        assertEquals(3, question.getCourseId());
+        assertEquals("Hard", question.getDifficultyLevel());
+        assertArrayEquals(new String[]{"yes", "no"}, question.getOptions());
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(-1));
+    }
+
+    @Test
+    void copiesRowsFromAnotherBank() {
+        QuestionBank source = sampleBank();
+        QuestionBank copy = new QuestionBank.Builder().add(source, 1).add(source, 2).build();
+        assertEquals(2, copy.size());
+        assertEquals("Capital of France?", copy.getText(0));
+        assertEquals("Hard", copy.getDifficultyLevel(1));
+    }
+
+    @Test
+    void survivesBinaryRoundTrip() throws IOException {
+        QuestionBank bank = sampleBank();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            bank.writeTo(out);
+        }
+        QuestionBank read = QuestionBank.readFrom(ByteBuffer.wrap(bytes.toByteArray()));
+
+        assertEquals(bank.size(), read.size());
+        for (int row = 0; row < bank.size(); row++) {
+            assertEquals(bank.getQuestionId(row), read.getQuestionId(row));
+            assertEquals(bank.getText(row), read.getText(row));
+            assertEquals(bank.getDifficultyLevel(row), read.getDifficultyLevel(row));
+            assertEquals(bank.getOptionCount(row), read.getOptionCount(row));
+            assertEquals(bank.getCorrectIndex(row), read.getCorrectIndex(row));
+        }
+        assertEquals(bank.courseSize(3), read.courseSize(3));
+    }
+}
@@ -0,0 +1,59 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void parsesNestedValues() {
+        Map<String, Object> object = Json.parseObject(
+                "{ \"id\": 12, \"ratio\": -1.5e2, \"ok\": true, \"none\": null, \"options\": [\"a\", [], {}] }");
+
+        assertEquals(12L, object.get("id"));
+        assertEquals(-150.0, object.get("ratio"));
+        assertEquals(Boolean.TRUE, object.get("ok"));
+        assertTrue(object.containsKey("none"));
+        assertNull(object.get("none"));
+        assertEquals(List.of("a", List.of(), Map.of()), object.get("options"));
+        assertEquals(List.of("id", "ratio", "ok", "none", "options"), List.copyOf(object.keySet()), "field order is kept");
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("a\"b\\c/d\n\t\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\""));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String text : new String[]{"", "{", "{\"a\" 1}", "{\"a\": tru}", "[1, 2", "\"open", "{} extra", "{a: 1}", "01x"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseArray("{}"));
+    }
+
+    @Test
+    void writesWhatItReads() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "line\nbreak \"quoted\" \u0001");
+        value.put("options", new String[]{"x", "y"});
+        value.put("ids", new int[]{1, 2});
+        value.put("count", 3);
+        value.put("missing", null);
+
+        String written = Json.write(value);
+        assertEquals("{\"text\":\"line\\nbreak \\\"quoted\\\" \\u0001\",\"options\":[\"x\",\"y\"],\"ids\":[1,2],"
+                + "\"count\":3,\"missing\":null}", written);
+
+        Map<String, Object> read = Json.parseObject(written);
+        assertEquals(value.get("text"), read.get("text"));
+        assertEquals(List.of("x", "y"), read.get("options"));
+        assertEquals(List.of(1L, 2L), read.get("ids"));
+    }
+}
@@ -0,0 +1,56 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0.0, snapshot.getMeanNanos());
+    }
+
+    @Test
+    void bucketsCoverEveryValueContiguously() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long low = LatencyHistogram.lowerBound(bucket);
+            assertTrue(low <= value && value - low < LatencyHistogram.width(bucket), "value " + value);
+        }
+        for (int bucket = 0; bucket < 200; bucket++) {
+            assertEquals(LatencyHistogram.lowerBound(bucket) + LatencyHistogram.width(bucket),
+                    LatencyHistogram.lowerBound(bucket + 1), "gap after bucket " + bucket);
+        }
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1_000; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1_000), snapshot.getMaxNanos());
+        assertEquals(500.5, snapshot.getMeanNanos() / 1_000_000, 1e-9);
+        assertEquals(500, snapshot.getMillisAtPercentile(50), 500 * 0.04);
+        assertEquals(990, snapshot.getMillisAtPercentile(99), 990 * 0.04);
+        assertEquals(1_000, snapshot.getMillisAtPercentile(100), 1_000 * 0.04);
+        assertTrue(snapshot.getMillisAtPercentile(100) <= 1_000, "capped at the largest value seen");
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.snapshot().getMaxNanos());
+    }
+}
@@ -0,0 +1,124 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionImporterParserTest {
+
+    @Test
+    void csvReadsQuotedFieldsByHeaderName() throws IOException {
+        String csv = "\uFEFFCourse_ID,question_text,option1\r\n"
+                + "1,\"Which, exactly?\",\"say \"\"hi\"\"\"\r\n"
+                + "\n"
+                + "2,\"two\nlines\",\n";
+        QuestionImporter.CsvSource source = new QuestionImporter.CsvSource(new StringReader(csv));
+
+        Map<String, String> first = source.next();
+        assertEquals("1", first.get("course_id"));
+        assertEquals("Which, exactly?", first.get("question_text"));
+        assertEquals("say \"hi\"", first.get("option1"));
+        assertEquals(2, source.getLine());
+
+        Map<String, String> second = source.next();
+        assertEquals("two\nlines", second.get("question_text"));
+        assertEquals("", second.get("option1"));
+        assertEquals(4, source.getLine(), "blank lines are skipped but counted");
+
+        assertNull(source.next());
+    }
+
+    @Test
+    void csvIgnoresFieldsBeyondTheHeader() throws IOException {
+        QuestionImporter.CsvSource source = new QuestionImporter.CsvSource(new StringReader("a,b\n1,2,3\n4"));
+        assertEquals(Map.of("a", "1", "b", "2"), source.next());
+        assertEquals(Map.of("a", "4"), source.next());
+        assertNull(source.next());
+    }
+
+    @Test
+    void csvRejectsEmptyFilesAndUnterminatedQuotes() throws IOException {
+        assertThrows(IOException.class, () -> new QuestionImporter.CsvSource(new StringReader("")));
+        QuestionImporter.CsvSource source = new QuestionImporter.CsvSource(new StringReader("a\n\"open"));
+        assertThrows(IOException.class, source::next);
+    }
+
+    @Test
+    void csvSkipsMalformedRecordsAndKeepsGoing() throws IOException {
+        String csv = "a,b\n1,2\n3,x\"y\n\"4\"z,5\n6,\"7\" \n";
+        QuestionImporter.CsvSource source = new QuestionImporter.CsvSource(new StringReader(csv));
+
+        assertEquals(Map.of("a", "1", "b", "2"), source.next());
+        assertThrows(QuestionImporter.MalformedRecordException.class, source::next, "quote inside an unquoted field");
+        assertEquals(3, source.getLine());
+        assertThrows(QuestionImporter.MalformedRecordException.class, source::next, "text after a closing quote");
+        assertEquals(4, source.getLine());
+        assertEquals(Map.of("a", "6", "b", "7"), source.next(), "blanks after a closing quote are allowed");
+        assertNull(source.next());
+    }
+
+    @Test
+    void csvAcceptsReadersWithoutMarkSupport() throws IOException {
+        Reader unmarkable = new FilterReader(new StringReader("a\n\"x\"\"y\"\n")) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+
+            @Override
+            public void mark(int readAheadLimit) throws IOException {
+                throw new IOException("mark not supported");
+            }
+        };
+        QuestionImporter.CsvSource source = new QuestionImporter.CsvSource(unmarkable);
+        assertEquals("x\"y", source.next().get("a"));
+        assertNull(source.next());
+    }
+
+    @Test
+    void jsonReadsArraysAndFlattensOptionLists() throws IOException {
+        String json = "[\n {\"courseId\": 1, \"Text\": \"a {b} \\\"c\\\"\", \"options\": [\"x\", \"y\"]},\n"
+                + " {\"courseId\": 2, \"text\": null}\n]";
+        QuestionImporter.JsonSource source = new QuestionImporter.JsonSource(new StringReader(json));
+
+        Map<String, String> first = source.next();
+        assertEquals("1", first.get("courseid"));
+        assertEquals("a {b} \"c\"", first.get("text"));
+        assertEquals("x", first.get("options.0"));
+        assertEquals("y", first.get("options.1"));
+        assertEquals(2, source.getLine());
+
+        Map<String, String> second = source.next();
+        assertFalse(second.containsKey("text"));
+        assertEquals(3, source.getLine());
+
+        assertNull(source.next());
+    }
+
+    @Test
+    void jsonSkipsMalformedRecordsAndKeepsGoing() throws IOException {
+        String jsonLines = "{\"text\": \"one\"}\n{\"text\": oops}\n{\"text\": \"three\"}\n";
+        QuestionImporter.JsonSource source = new QuestionImporter.JsonSource(new StringReader(jsonLines));
+
+        assertEquals("one", source.next().get("text"));
+        assertThrows(QuestionImporter.MalformedRecordException.class, source::next);
+        assertEquals(2, source.getLine());
+        assertEquals("three", source.next().get("text"));
+        assertEquals(3, source.getLine());
+        assertNull(source.next());
+    }
+
+    @Test
+    void jsonFailsOnBrokenStructure() throws IOException {
+        QuestionImporter.JsonSource unterminated = new QuestionImporter.JsonSource(new StringReader("[{\"a\": 1}"));
+        unterminated.next();
+        assertThrows(IOException.class, unterminated::next);
+        assertThrows(IOException.class, () -> new QuestionImporter.JsonSource(new StringReader("42")).next());
+    }
+}
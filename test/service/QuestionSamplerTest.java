@@ -0,0 +1,80 @@
+package service;
+
+import model.QuestionBank;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSamplerTest {
+
+    @Test
+    void picksDistinctIndexesInRange() {
+        Random random = new Random(7);
+        for (int n : new int[]{1, 5, 100, 1_000_000}) {
+            int[] picks = QuestionSampler.pickIndexes(n, 10, random);
+            assertEquals(Math.min(n, 10), picks.length);
+            Set<Integer> seen = new HashSet<>();
+            for (int pick : picks) {
+                assertTrue(pick >= 0 && pick < n, "index " + pick + " out of [0, " + n + ")");
+                assertTrue(seen.add(pick), "index " + pick + " picked twice");
+            }
+        }
+    }
+
+    @Test
+    void takesEveryIndexWhenAskingForMoreThanThereAre() {
+        int[] picks = QuestionSampler.pickIndexes(20, 50, new Random(1));
+        Set<Integer> seen = new HashSet<>();
+        for (int pick : picks) {
+            seen.add(pick);
+        }
+        assertEquals(20, seen.size());
+    }
+
+    @Test
+    void handlesEmptyInput() {
+        assertEquals(0, QuestionSampler.pickIndexes(0, 10, new Random(1)).length);
+        assertEquals(0, QuestionSampler.pickIndexes(10, 0, new Random(1)).length);
+        assertEquals(0, QuestionSampler.pickIndexes(10, -3, new Random(1)).length);
+    }
+
+    @Test
+    void picksEveryIndexAboutEquallyOften() {
+        int n = 10;
+        int[] counts = new int[n];
+        Random random = new Random(3);
+        int rounds = 20_000;
+        for (int i = 0; i < rounds; i++) {
+            for (int pick : QuestionSampler.pickIndexes(n, 3, random)) {
+                counts[pick]++;
+            }
+        }
+        double expected = rounds * 3.0 / n;
+        for (int count : counts) {
+            assertEquals(expected, count, expected * 0.05);
+        }
+    }
+
+    @Test
+    void samplesRowsOfTheRequestedCourseOnly() {
+        QuestionBank.Builder builder = new QuestionBank.Builder();
+        for (int id = 1; id <= 5; id++) {
+            builder.add(id, 1, "Easy", "Course 1 question " + id, new String[]{"a", "b"}, 1);
+        }
+        for (int id = 6; id <= 8; id++) {
+            builder.add(id, 2, "Hard", "Course 2 question " + id, new String[]{"a", "b"}, 2);
+        }
+        QuestionBank bank = builder.build();
+
+        int[] rows = QuestionSampler.sampleRows(bank, 2, 10, new Random(5));
+        assertEquals(3, rows.length);
+        for (int row : rows) {
+            assertEquals(2, bank.getCourseId(row));
+        }
+        assertEquals(0, QuestionSampler.sampleRows(bank, 3, 10, new Random(5)).length);
+    }
+}
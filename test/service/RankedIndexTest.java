@@ -0,0 +1,99 @@
+package service;
+
+import model.ScoreEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedIndexTest {
+
+    @Test
+    void ranksByScoreDescendingThenUsername() {
+        RankedIndex index = new RankedIndex();
+        index.insert("carol", 50);
+        index.insert("alice", 80);
+        index.insert("bob", 50);
+
+        assertEquals(3, index.size());
+        assertEquals(1, index.rankOf("alice", 80));
+        assertEquals(2, index.rankOf("bob", 50));
+        assertEquals(3, index.rankOf("carol", 50));
+        assertEquals(0, index.rankOf("dave", 10));
+        assertEquals(0, index.rankOf("alice", 50), "rank lookup needs the entry's current score");
+    }
+
+    @Test
+    void deleteRemovesOnlyTheMatchingEntry() {
+        RankedIndex index = new RankedIndex();
+        index.insert("alice", 80);
+        index.insert("bob", 50);
+
+        assertFalse(index.delete("bob", 80));
+        assertTrue(index.delete("alice", 80));
+        assertFalse(index.delete("alice", 80));
+        assertEquals(1, index.size());
+        assertEquals(1, index.rankOf("bob", 50));
+    }
+
+    @Test
+    void rangeAndAfterPageThroughTheRanking() {
+        RankedIndex index = new RankedIndex();
+        for (int i = 0; i < 10; i++) {
+            index.insert("user" + i, i * 10);
+        }
+
+        List<ScoreEntry> page = index.range(2, 3);
+        assertEquals(List.of("user7", "user6", "user5"), usernames(page));
+        assertEquals(3, page.get(0).getRank());
+
+        List<ScoreEntry> next = index.after(50, "user5", 3);
+        assertEquals(List.of("user4", "user3", "user2"), usernames(next));
+        assertEquals(6, next.get(0).getRank());
+
+        assertTrue(index.range(10, 5).isEmpty());
+        assertTrue(index.range(-1, 5).isEmpty());
+        assertTrue(index.after(0, "user0", 5).isEmpty());
+        assertEquals(2, index.range(8, 5).size());
+    }
+
+    @Test
+    void matchesASortedListUnderRandomUpdates() {
+        RankedIndex index = new RankedIndex();
+        List<ScoreEntry> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            String username = "user" + random.nextInt(500);
+            ScoreEntry existing = expected.stream().filter(e -> e.getUsername().equals(username)).findFirst().orElse(null);
+            if (existing != null) {
+                assertTrue(index.delete(username, existing.getScore()));
+                expected.remove(existing);
+            }
+            int score = random.nextInt(100);
+            index.insert(username, score);
+            expected.add(new ScoreEntry(0, username, score));
+        }
+        expected.sort(Comparator.comparingInt(ScoreEntry::getScore).reversed().thenComparing(ScoreEntry::getUsername));
+
+        assertEquals(expected.size(), index.size());
+        List<ScoreEntry> all = index.range(0, expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ScoreEntry entry = expected.get(i);
+            assertEquals(entry.getUsername(), all.get(i).getUsername());
+            assertEquals(i + 1, all.get(i).getRank());
+            assertEquals(i + 1, index.rankOf(entry.getUsername(), entry.getScore()));
+        }
+    }
+
+    private static List<String> usernames(List<ScoreEntry> rows) {
+        List<String> names = new ArrayList<>();
+        for (ScoreEntry row : rows) {
+            names.add(row.getUsername());
+        }
+        return names;
+    }
+}